@@ -0,0 +1,41 @@
+package com.tomtaru.fbcm;
+
+import net.minecraft.world.level.block.Block;
+
+// Config overrides for the GameTest batches, every value that is not passed in keeps its configured value.
+// Batches undo them with reset() in their @AfterBatch. Lives in the gametest source set next to Config, so the
+// override is not reachable from the mod itself.
+public final class TestConfig {
+    private TestConfig() {
+    }
+
+    public static void reset() {
+        Config.override(null);
+    }
+
+    // Growth only, spreading is turned off so it does not show up in the measurement
+    public static void growth(int growthInterval) {
+        growth(growthInterval, Config.get().growthBudgetMicros());
+    }
+
+    public static void growth(int growthInterval, int growthBudgetMicros) {
+        ConfigSnapshot config = Config.get();
+        Config.override(new ConfigSnapshot(config.logDirtBlock(), config.magicNumber(), config.magicNumberIntroduction(), config.items(),
+                growthBudgetMicros, growthInterval, config.growthMaxCatchUp(),
+                null, config.spreadInterval(), config.spreadBudgetMicros(), config.areaMiningCap()));
+    }
+
+    public static void spread(Block spreadBlock, int spreadInterval, int spreadBudgetMicros) {
+        ConfigSnapshot config = Config.get();
+        Config.override(new ConfigSnapshot(config.logDirtBlock(), config.magicNumber(), config.magicNumberIntroduction(), config.items(),
+                config.growthBudgetMicros(), config.growthInterval(), config.growthMaxCatchUp(),
+                spreadBlock, spreadInterval, spreadBudgetMicros, config.areaMiningCap()));
+    }
+
+    public static void areaMiningCap(int areaMiningCap) {
+        ConfigSnapshot config = Config.get();
+        Config.override(new ConfigSnapshot(config.logDirtBlock(), config.magicNumber(), config.magicNumberIntroduction(), config.items(),
+                config.growthBudgetMicros(), config.growthInterval(), config.growthMaxCatchUp(),
+                config.spreadBlock(), config.spreadInterval(), config.spreadBudgetMicros(), areaMiningCap));
+    }
+}
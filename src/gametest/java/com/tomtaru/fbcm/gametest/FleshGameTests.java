@@ -0,0 +1,318 @@
+package com.tomtaru.fbcm.gametest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+import com.tomtaru.fbcm.TestConfig;
+import com.tomtaru.fbcm.client.model.TopFaceMesher;
+import com.tomtaru.fbcm.crafting.FleshCraftingMenu;
+import com.tomtaru.fbcm.crafting.FleshCraftingRecipe;
+import com.tomtaru.fbcm.crafting.FleshRecipeMatcher;
+import com.tomtaru.fbcm.spread.FleshSpreadEngine;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.NonNullList;
+import net.minecraft.core.SectionPos;
+import net.minecraft.gametest.framework.AfterBatch;
+import net.minecraft.gametest.framework.BeforeBatch;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.inventory.ContainerLevelAccess;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.CraftingBookCategory;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.CropBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.gametest.GameTestHolder;
+import net.neoforged.neoforge.gametest.PrefixGameTestTemplate;
+
+// Behaviour tests of the mod's blocks and systems, next to the timed PerfScenarios.
+@GameTestHolder(FleshblockCompanionMod.MODID)
+@PrefixGameTestTemplate(false)
+public final class FleshGameTests {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int SPREAD_MAZE_TICKS = 2400;
+
+    // Converted blocks of the spread_maze run that finished first, relative to the structure
+    @Nullable
+    private static Set<BlockPos> spreadMazeResult;
+
+    private FleshGameTests() {
+    }
+
+    // 64 x 64 tilled flesh on a stone floor. Counts the quads the block renderer emits, using the same face culling
+    // check as ModelBlockRenderer. Every face of models/block/tilled_flesh.json has a cullface except the top one.
+    // Only the tops and the outer edge may be meshed: 4096 + 4 * 64 quads instead of 6 * 4096.
+    @GameTest(template = "flesh_field_64")
+    public static void fieldMeshesOnlyVisibleFaces(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        int[] blocks = new int[1];
+        int[] quads = new int[1];
+        BlockPos.MutableBlockPos neighbour = new BlockPos.MutableBlockPos();
+        helper.forEveryBlockInStructure(pos -> {
+            BlockState state = level.getBlockState(pos);
+            if (!state.is(FleshblockCompanionMod.TILLED_FLESH.get())) {
+                return;
+            }
+            blocks[0]++;
+            for (Direction direction : DIRECTIONS) {
+                if (direction == Direction.UP || Block.shouldRenderFace(state, level, pos, direction, neighbour.setWithOffset(pos, direction))) {
+                    quads[0]++;
+                }
+            }
+        });
+
+        helper.assertTrue(blocks[0] == 64 * 64, "Expected 4096 tilled flesh blocks, found " + blocks[0]);
+        helper.assertTrue(quads[0] == 64 * 64 + 4 * 64, "Expected 4352 quads for the field, counted " + quads[0]);
+        helper.succeed();
+    }
+
+    // The same field with ClientConfig.MERGED_TOP_FACES on. The tops are meshed per section and layer the way
+    // MergedTopFaces does, all evenly lit, so every section the field covers is tiled with ceil(w / size) x
+    // ceil(d / size) quads for the part of the field inside it.
+    @GameTest(template = "flesh_field_64")
+    public static void fieldMergesTopFaces(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        Map<Long, int[]> sections = new HashMap<>();
+        int[] minX = { Integer.MAX_VALUE };
+        int[] minZ = { Integer.MAX_VALUE };
+        helper.forEveryBlockInStructure(pos -> {
+            if (level.getBlockState(pos).is(FleshblockCompanionMod.TILLED_FLESH.get())) {
+                int[] keys = sections.computeIfAbsent(SectionPos.asLong(pos), section -> {
+                    int[] empty = new int[TopFaceMesher.SIZE * TopFaceMesher.SIZE * TopFaceMesher.SIZE];
+                    Arrays.fill(empty, -1);
+                    return empty;
+                });
+                keys[SectionPos.sectionRelative(pos.getX()) + SectionPos.sectionRelative(pos.getZ()) * TopFaceMesher.SIZE
+                        + SectionPos.sectionRelative(pos.getY()) * TopFaceMesher.SIZE * TopFaceMesher.SIZE] = 0;
+                minX[0] = Math.min(minX[0], pos.getX());
+                minZ[0] = Math.min(minZ[0], pos.getZ());
+            }
+        });
+
+        for (int size : new int[] { 1, 4, 16 }) {
+            int quads = 0;
+            int[] covered = new int[1];
+            for (int[] section : sections.values()) {
+                for (int y = 0; y < TopFaceMesher.SIZE; y++) {
+                    int[] layer = Arrays.copyOfRange(section, y * TopFaceMesher.SIZE * TopFaceMesher.SIZE, (y + 1) * TopFaceMesher.SIZE * TopFaceMesher.SIZE);
+                    quads += TopFaceMesher.mesh(layer, size, (x, z, width, depth, key) -> covered[0] += width * depth);
+                }
+            }
+
+            int expected = 0;
+            for (int sectionX = SectionPos.blockToSectionCoord(minX[0]); sectionX <= SectionPos.blockToSectionCoord(minX[0] + 63); sectionX++) {
+                for (int sectionZ = SectionPos.blockToSectionCoord(minZ[0]); sectionZ <= SectionPos.blockToSectionCoord(minZ[0] + 63); sectionZ++) {
+                    int width = Math.min(SectionPos.sectionToBlockCoord(sectionX, 15), minX[0] + 63) - Math.max(SectionPos.sectionToBlockCoord(sectionX), minX[0]) + 1;
+                    int depth = Math.min(SectionPos.sectionToBlockCoord(sectionZ, 15), minZ[0] + 63) - Math.max(SectionPos.sectionToBlockCoord(sectionZ), minZ[0]) + 1;
+                    expected += Mth.positiveCeilDiv(width, size) * Mth.positiveCeilDiv(depth, size);
+                }
+            }
+
+            helper.assertTrue(covered[0] == 64 * 64, "Merged tops of size " + size + " cover " + covered[0] + " blocks instead of 4096");
+            helper.assertTrue(quads == expected, "Expected " + expected + " merged tops of size " + size + ", meshed " + quads);
+        }
+        helper.succeed();
+    }
+
+    @BeforeBatch(batch = "fbcm_growth_budget_tiny")
+    public static void beforeTinyGrowthBudget(ServerLevel level) {
+        // Runs out after the first section of every tick, so every pass over the field is spread over many ticks
+        TestConfig.growth(20, 1);
+    }
+
+    @AfterBatch(batch = "fbcm_growth_budget_tiny")
+    public static void afterTinyGrowthBudget(ServerLevel level) {
+        TestConfig.reset();
+    }
+
+    // The wheat of perf_flesh_field with a growth budget of 1 µs. Passes that stop halfway have to be resumed where
+    // they stopped, so every crop still grows up and none is skipped or grown twice by a restarted pass.
+    @GameTest(template = "perf_flesh_field", batch = "fbcm_growth_budget_tiny", timeoutTicks = 1200)
+    public static void growthWithTinyBudget(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        List<BlockPos> crops = new ArrayList<>();
+        helper.forEveryBlockInStructure(pos -> {
+            if (level.getBlockState(pos).is(Blocks.WHEAT)) {
+                crops.add(pos.immutable());
+            }
+        });
+        helper.succeedWhen(() -> {
+            for (BlockPos pos : crops) {
+                BlockState state = level.getBlockState(pos);
+                helper.assertTrue(state.getBlock() instanceof CropBlock crop && crop.isMaxAge(state), "The wheat at " + pos + " has not grown up");
+            }
+        });
+    }
+
+    @BeforeBatch(batch = "fbcm_spread_budget_large")
+    public static void beforeLargeSpreadBudget(ServerLevel level) {
+        // 50 ms, every generation finishes within the tick it starts in
+        TestConfig.spread(Blocks.NETHER_WART_BLOCK, 1, 50_000);
+    }
+
+    @AfterBatch(batch = "fbcm_spread_budget_large")
+    public static void afterLargeSpreadBudget(ServerLevel level) {
+        TestConfig.reset();
+    }
+
+    @BeforeBatch(batch = "fbcm_spread_budget_small")
+    public static void beforeSmallSpreadBudget(ServerLevel level) {
+        // Less than a single batch takes, so every generation is spread over several ticks
+        TestConfig.spread(Blocks.NETHER_WART_BLOCK, 1, 10);
+    }
+
+    @AfterBatch(batch = "fbcm_spread_budget_small")
+    public static void afterSmallSpreadBudget(ServerLevel level) {
+        TestConfig.reset();
+    }
+
+    @GameTest(template = "spread_maze", batch = "fbcm_spread_budget_large", timeoutTicks = SPREAD_MAZE_TICKS)
+    public static void spreadWithLargeBudget(GameTestHelper helper) {
+        spreadMaze(helper);
+    }
+
+    @GameTest(template = "spread_maze", batch = "fbcm_spread_budget_small", timeoutTicks = SPREAD_MAZE_TICKS)
+    public static void spreadWithSmallBudget(GameTestHelper helper) {
+        spreadMaze(helper);
+    }
+
+    // Dirt split into lanes by stone walls, a sealed dirt pocket and a nether wart block seed. The spread budget may
+    // only change how fast the seed spreads: both batches have to end with exactly the blocks a flood fill from the
+    // seed reaches, and with the same blocks as each other.
+    private static void spreadMaze(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        BlockPos[] seed = new BlockPos[1];
+        helper.forEveryBlockInStructure(pos -> {
+            if (level.getBlockState(pos).is(Blocks.NETHER_WART_BLOCK)) {
+                seed[0] = pos.immutable();
+            }
+        });
+        helper.assertTrue(seed[0] != null, "spread_maze has no nether wart block");
+
+        Set<BlockPos> expected = floodFill(helper, seed[0]);
+        // Placing the template does not notify neighbours, wake the seed up the same way a placed block would
+        level.updateNeighborsAt(seed[0], Blocks.NETHER_WART_BLOCK);
+
+        helper.succeedWhen(() -> {
+            Set<BlockPos> converted = new HashSet<>();
+            helper.forEveryBlockInStructure(pos -> {
+                if (level.getBlockState(pos).is(Blocks.NETHER_WART_BLOCK)) {
+                    converted.add(helper.relativePos(pos));
+                }
+            });
+            helper.assertTrue(converted.equals(expected), "Converted " + converted.size() + " blocks, expected " + expected.size());
+            if (spreadMazeResult == null) {
+                spreadMazeResult = converted;
+            } else {
+                helper.assertTrue(spreadMazeResult.equals(converted), "The spread budgets ended with different blocks");
+            }
+        });
+    }
+
+    // Everything in the fbcm:flesh_spreadable tag that is connected to the seed, relative to the structure
+    private static Set<BlockPos> floodFill(GameTestHelper helper, BlockPos seed) {
+        ServerLevel level = helper.getLevel();
+        AABB bounds = helper.getBounds();
+        Set<BlockPos> visited = new HashSet<>();
+        ArrayDeque<BlockPos> queue = new ArrayDeque<>();
+        visited.add(seed);
+        queue.add(seed);
+        while (!queue.isEmpty()) {
+            BlockPos pos = queue.poll();
+            for (Direction direction : DIRECTIONS) {
+                BlockPos neighbour = pos.relative(direction);
+                if (bounds.contains(Vec3.atCenterOf(neighbour)) && !visited.contains(neighbour) && level.getBlockState(neighbour).is(FleshSpreadEngine.SPREADABLE)) {
+                    visited.add(neighbour);
+                    queue.add(neighbour);
+                }
+            }
+        }
+
+        Set<BlockPos> relative = new HashSet<>();
+        for (BlockPos pos : visited) {
+            relative.add(helper.relativePos(pos));
+        }
+        return relative;
+    }
+
+    // Takes the result of a flesh recipe once by clicking it and then by shift clicking it until the grid runs out.
+    // Every craft has to take exactly one item from each grid slot and hand back the bucket of the milk.
+    @GameTest(template = "flesh_crafting_table")
+    public static void craftingUsesUpTheGrid(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        ServerPlayer player = helper.makeMockServerPlayerInLevel();
+        withRecipes(level, List.of(testRecipe("test_milk_leather", Items.MILK_BUCKET), testRecipe("test_bone_leather", Items.BONE)), () -> {
+            FleshCraftingMenu menu = new FleshCraftingMenu(0, player.getInventory(), ContainerLevelAccess.create(level, helper.absolutePos(new BlockPos(1, 1, 1))));
+
+            // Slots 1 to 9 are the grid
+            menu.getSlot(1).set(new ItemStack(Items.ROTTEN_FLESH, 3));
+            menu.getSlot(2).set(new ItemStack(Items.MILK_BUCKET));
+            assertStack(helper, menu.getSlot(0).getItem(), Items.LEATHER, 1, "result");
+            menu.clicked(0, 0, ClickType.PICKUP, player);
+            assertStack(helper, menu.getCarried(), Items.LEATHER, 1, "carried result");
+            assertStack(helper, menu.getSlot(1).getItem(), Items.ROTTEN_FLESH, 2, "flesh slot");
+            assertStack(helper, menu.getSlot(2).getItem(), Items.BUCKET, 1, "milk slot");
+            menu.setCarried(ItemStack.EMPTY);
+
+            menu.getSlot(1).set(new ItemStack(Items.ROTTEN_FLESH, 3));
+            menu.getSlot(2).set(new ItemStack(Items.BONE, 5));
+            menu.clicked(0, 0, ClickType.QUICK_MOVE, player);
+            helper.assertTrue(menu.getSlot(1).getItem().isEmpty(), "Expected the flesh slot to be used up, found " + menu.getSlot(1).getItem());
+            assertStack(helper, menu.getSlot(2).getItem(), Items.BONE, 2, "bone slot");
+            helper.assertTrue(menu.getSlot(0).getItem().isEmpty(), "Expected no result once the flesh is used up, found " + menu.getSlot(0).getItem());
+            int leather = player.getInventory().countItem(Items.LEATHER);
+            helper.assertTrue(leather == 3, "Expected 3 leather from shift clicking, found " + leather);
+        });
+        helper.succeed();
+    }
+
+    private static void assertStack(GameTestHelper helper, ItemStack stack, Item item, int count, String name) {
+        helper.assertTrue(stack.is(item) && stack.getCount() == count, "Expected " + count + " " + item + " in the " + name + ", found " + stack);
+    }
+
+    // There are no flesh recipes in the mod's own data, the tests add theirs to the server's RecipeManager for
+    // their length
+    static void withRecipes(ServerLevel level, List<RecipeHolder<?>> added, Runnable test) {
+        RecipeManager recipes = level.getRecipeManager();
+        List<RecipeHolder<?>> before = List.copyOf(recipes.getRecipes());
+        List<RecipeHolder<?>> withTest = new ArrayList<>(before);
+        withTest.addAll(added);
+        recipes.replaceRecipes(withTest);
+        FleshRecipeMatcher.get(level).invalidate();
+        try {
+            test.run();
+        } finally {
+            recipes.replaceRecipes(before);
+            FleshRecipeMatcher.get(level).invalidate();
+        }
+    }
+
+    private static RecipeHolder<FleshCraftingRecipe> testRecipe(String name, Item second) {
+        return new RecipeHolder<>(ResourceLocation.fromNamespaceAndPath(FleshblockCompanionMod.MODID, name), new FleshCraftingRecipe("", CraftingBookCategory.MISC,
+                new ItemStack(Items.LEATHER), NonNullList.of(Ingredient.EMPTY, Ingredient.of(Items.ROTTEN_FLESH), Ingredient.of(second))));
+    }
+}
@@ -0,0 +1,112 @@
+package com.tomtaru.fbcm.gametest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.packs.resources.Resource;
+import net.neoforged.fml.ModList;
+
+// Checks the results of the performance scenarios against data/fbcm/gametest/perf_budgets.json and collects them
+// in one JSON report. Every "max_<metric>" entry of a scenario's budget fails the scenario if its <metric> is higher.
+// The report is rewritten after every scenario, to the file in the fbcm.perfReport system property or
+// fbcm-perf-report.json in the server directory.
+final class PerfReport {
+    private static final ResourceLocation BUDGETS = ResourceLocation.fromNamespaceAndPath(FleshblockCompanionMod.MODID, "gametest/perf_budgets.json");
+    private static final String MAX_PREFIX = "max_";
+    private static final List<JsonObject> RESULTS = new ArrayList<>();
+
+    private PerfReport() {
+    }
+
+    // Records the result and passes or fails the scenario
+    static void check(GameTestHelper helper, String scenario, JsonObject result) {
+        MinecraftServer server = helper.getLevel().getServer();
+        JsonObject budget = budget(server, scenario);
+        List<String> failures = new ArrayList<>();
+        if (budget == null) {
+            failures.add("no budget for " + scenario + " in " + BUDGETS);
+        } else {
+            for (Map.Entry<String, JsonElement> entry : budget.entrySet()) {
+                String metric = entry.getKey().startsWith(MAX_PREFIX) ? entry.getKey().substring(MAX_PREFIX.length()) : null;
+                if (metric == null || !result.has(metric)) {
+                    failures.add("unknown budget entry " + entry.getKey());
+                } else if (result.get(metric).getAsDouble() > entry.getValue().getAsDouble()) {
+                    failures.add(metric + " " + result.get(metric).getAsDouble() + " > " + entry.getValue().getAsDouble());
+                }
+            }
+        }
+
+        result.addProperty("scenario", scenario);
+        result.add("budget", budget == null ? new JsonObject() : budget);
+        result.addProperty("passed", failures.isEmpty());
+        JsonArray failed = new JsonArray();
+        failures.forEach(failed::add);
+        result.add("failures", failed);
+        synchronized (RESULTS) {
+            RESULTS.removeIf(previous -> previous.get("scenario").getAsString().equals(scenario));
+            RESULTS.add(result);
+            write(server);
+        }
+
+        if (failures.isEmpty()) {
+            helper.succeed();
+        } else {
+            helper.fail(scenario + " is over budget: " + String.join(", ", failures));
+        }
+    }
+
+    @Nullable
+    private static JsonObject budget(MinecraftServer server, String scenario) {
+        Optional<Resource> resource = server.getResourceManager().getResource(BUDGETS);
+        if (resource.isEmpty()) {
+            return null;
+        }
+        try (Reader reader = resource.get().openAsReader()) {
+            JsonElement budget = JsonParser.parseReader(reader).getAsJsonObject().get(scenario);
+            return budget == null ? null : budget.getAsJsonObject();
+        } catch (IOException | RuntimeException e) {
+            FleshblockCompanionMod.LOGGER.error("Could not read {}", BUDGETS, e);
+            return null;
+        }
+    }
+
+    private static void write(MinecraftServer server) {
+        String property = System.getProperty("fbcm.perfReport");
+        Path file = property != null ? Path.of(property) : server.getServerDirectory().resolve("fbcm-perf-report.json");
+        JsonObject report = new JsonObject();
+        report.addProperty("mod_version", ModList.get().getModContainerById(FleshblockCompanionMod.MODID)
+                .map(container -> container.getModInfo().getVersion().toString()).orElse("unknown"));
+        report.addProperty("java", Runtime.version().toString());
+        JsonArray scenarios = new JsonArray();
+        RESULTS.forEach(scenarios::add);
+        report.add("scenarios", scenarios);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                new GsonBuilder().setPrettyPrinting().create().toJson(report, writer);
+            }
+        } catch (IOException e) {
+            FleshblockCompanionMod.LOGGER.error("Could not write the fbcm performance report to {}", file, e);
+        }
+    }
+}
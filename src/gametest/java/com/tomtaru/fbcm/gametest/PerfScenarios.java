@@ -0,0 +1,622 @@
+package com.tomtaru.fbcm.gametest;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import com.google.gson.JsonObject;
+import com.tomtaru.fbcm.Config;
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+import com.tomtaru.fbcm.TestConfig;
+import com.tomtaru.fbcm.crafting.FleshCraftingMenu;
+import com.tomtaru.fbcm.crafting.FleshCraftingRecipe;
+import com.tomtaru.fbcm.crafting.FleshRecipeMatcher;
+import com.tomtaru.fbcm.item.AreaMiner;
+import com.tomtaru.fbcm.item.MiningMode;
+import com.tomtaru.fbcm.network.FleshStateDelta;
+import com.tomtaru.fbcm.network.FleshStateSync;
+import com.tomtaru.fbcm.profiling.FleshProfiler;
+import com.tomtaru.fbcm.profiling.Subsystem;
+import com.tomtaru.fbcm.profiling.TimerHistogram;
+
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.NonNullList;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.gametest.framework.AfterBatch;
+import net.minecraft.gametest.framework.BeforeBatch;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.protocol.game.ClientboundBlockUpdatePacket;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.inventory.ClickType;
+import net.minecraft.world.inventory.ContainerLevelAccess;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.component.Unbreakable;
+import net.minecraft.world.item.crafting.CraftingBookCategory;
+import net.minecraft.world.item.crafting.CraftingInput;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.level.GameRules;
+import net.minecraft.world.level.GameType;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.CropBlock;
+import net.minecraft.world.level.block.FarmBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.material.FluidState;
+import net.neoforged.neoforge.gametest.GameTestHolder;
+import net.neoforged.neoforge.gametest.PrefixGameTestTemplate;
+
+// Performance scenarios, run headless by the gameTestServer run config.
+// Every scenario is its own batch, so nothing else ticks the mod while it is measured, and overrides the config it
+// needs for the length of the batch. It places a large farm or field from a structure template, lets the server
+// run it for a fixed number of ticks with FleshProfiler on, and is then checked against its budget by PerfReport.
+// Scenarios of a single action, like breaking a vein, time just that action.
+@GameTestHolder(FleshblockCompanionMod.MODID)
+@PrefixGameTestTemplate(false)
+public final class PerfScenarios {
+    private static final int GROWTH_TICKS = 200;
+    private static final int SPREAD_TICKS = 300;
+    private static final int VEIN_BLOCKS = 1000;
+    private static final int SMALL_SPREAD_BUDGET_MICROS = 100;
+    private static final int CRAFTING_RECIPES = 500;
+    private static final int CRAFTS = 2000;
+    private static final int[] RECIPE_LOOKUP_COUNTS = { 50, 500, 5000 };
+    // More than FleshRecipeMatcher caches, so cycling through them misses the cache
+    private static final int RECIPE_LOOKUP_GRIDS = 512;
+    private static final int RECIPE_LOOKUPS = 2048;
+    private static final int CONFIG_READS = 1_000_000;
+    // The default randomTickSpeed
+    private static final int RANDOM_TICK_SPEED = 3;
+    // The subsystems that run every tick, their total is the mod's tick time
+    private static final Subsystem[] TICK_SUBSYSTEMS = { Subsystem.GROWTH, Subsystem.SPREAD, Subsystem.NETWORK };
+
+    private PerfScenarios() {
+    }
+
+    @BeforeBatch(batch = "fbcm_growth_field")
+    public static void beforeGrowthField(ServerLevel level) {
+        // One growth step per second, the 10000 crops of the field change state together
+        TestConfig.growth(20);
+    }
+
+    @AfterBatch(batch = "fbcm_growth_field")
+    public static void afterGrowthField(ServerLevel level) {
+        FleshStateSync.setListener(null);
+        TestConfig.reset();
+    }
+
+    // 100 x 100 tilled flesh with wheat. Also compares the bandwidth of FleshStateSync with vanilla block updates.
+    @GameTest(template = "perf_flesh_field", batch = "fbcm_growth_field", timeoutTicks = GROWTH_TICKS + 100)
+    public static void growthField(GameTestHelper helper) {
+        SyncBandwidth bandwidth = new SyncBandwidth(helper.getLevel());
+        FleshStateSync.setListener(bandwidth);
+        Measurement measurement = Measurement.start(helper.getLevel());
+        helper.runAfterDelay(GROWTH_TICKS, () -> {
+            FleshStateSync.setListener(null);
+            JsonObject result = measurement.finish(Subsystem.GROWTH);
+            bandwidth.report(result, measurement.ticks());
+            PerfReport.check(helper, "growth_field", result);
+        });
+    }
+
+    @BeforeBatch(batch = "fbcm_growth_versus_random_ticks")
+    public static void beforeGrowthVersusRandomTicks(ServerLevel level) {
+        TestConfig.growth(20);
+        // The random ticks of the second half are driven by the scenario, only for the sections of the field
+        level.getGameRules().getRule(GameRules.RULE_RANDOMTICKING).set(0, level.getServer());
+    }
+
+    @AfterBatch(batch = "fbcm_growth_versus_random_ticks")
+    public static void afterGrowthVersusRandomTicks(ServerLevel level) {
+        level.getGameRules().getRule(GameRules.RULE_RANDOMTICKING).set(RANDOM_TICK_SPEED, level.getServer());
+        TestConfig.reset();
+    }
+
+    // The growth pass of FleshGrowthScheduler against the vanilla random ticks it replaces, on the same field.
+    // The first half lets the scheduler grow the wheat of perf_flesh_field. The second half turns the tilled flesh
+    // into moist farmland, resets the wheat and random ticks the field's sections every tick the way
+    // ServerLevel.tickChunk does. Both are compared per growth step, the scheduler may not cost more per step.
+    @GameTest(template = "perf_flesh_field", batch = "fbcm_growth_versus_random_ticks", timeoutTicks = 2 * GROWTH_TICKS + 100)
+    public static void growthVersusRandomTicks(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        List<BlockPos> crops = new ArrayList<>();
+        LongOpenHashSet sections = new LongOpenHashSet();
+        helper.forEveryBlockInStructure(pos -> {
+            if (level.getBlockState(pos).is(Blocks.WHEAT)) {
+                crops.add(pos.immutable());
+                sections.add(SectionPos.asLong(pos));
+                sections.add(SectionPos.asLong(pos.below()));
+            }
+        });
+
+        JsonObject result = new JsonObject();
+        long[] randomTickNanos = new long[1];
+        boolean[] randomTicking = new boolean[1];
+        int[] startAge = { totalAge(level, crops) };
+        Measurement measurement = Measurement.start(level);
+        helper.onEachTick(() -> {
+            if (randomTicking[0]) {
+                long start = System.nanoTime();
+                randomTick(level, sections);
+                randomTickNanos[0] += System.nanoTime() - start;
+            }
+        });
+        helper.runAfterDelay(GROWTH_TICKS, () -> {
+            JsonObject scheduler = measurement.finish(Subsystem.GROWTH);
+            int steps = totalAge(level, crops) - startAge[0];
+            double nanos = FleshProfiler.summary(Subsystem.GROWTH).totalNanos();
+            result.addProperty("scheduler_ms_per_tick", scheduler.get("mod_ms_per_tick").getAsDouble());
+            result.addProperty("scheduler_growth_steps", steps);
+            result.addProperty("scheduler_us_per_step", nanos / 1.0E3 / Math.max(1, steps));
+
+            for (BlockPos pos : crops) {
+                level.setBlock(pos.below(), Blocks.FARMLAND.defaultBlockState().setValue(FarmBlock.MOISTURE, FarmBlock.MAX_MOISTURE), Block.UPDATE_CLIENTS);
+                level.setBlock(pos, Blocks.WHEAT.defaultBlockState(), Block.UPDATE_CLIENTS);
+            }
+            startAge[0] = totalAge(level, crops);
+            randomTicking[0] = true;
+        });
+        helper.runAfterDelay(2 * GROWTH_TICKS + 1, () -> {
+            randomTicking[0] = false;
+            int steps = totalAge(level, crops) - startAge[0];
+            result.addProperty("random_tick_ms_per_tick", randomTickNanos[0] / 1.0E6 / GROWTH_TICKS);
+            result.addProperty("random_tick_growth_steps", steps);
+            result.addProperty("random_tick_us_per_step", randomTickNanos[0] / 1.0E3 / Math.max(1, steps));
+            result.addProperty("scheduler_to_random_tick_cost_per_step",
+                    result.get("scheduler_us_per_step").getAsDouble() / Math.max(1.0E-6, result.get("random_tick_us_per_step").getAsDouble()));
+            PerfReport.check(helper, "growth_versus_random_ticks", result);
+        });
+    }
+
+    private static int totalAge(ServerLevel level, List<BlockPos> crops) {
+        int age = 0;
+        for (BlockPos pos : crops) {
+            BlockState state = level.getBlockState(pos);
+            if (state.getBlock() instanceof CropBlock crop) {
+                age += crop.getAge(state);
+            }
+        }
+        return age;
+    }
+
+    // One tick of vanilla random ticking for the sections, see ServerLevel.tickChunk
+    private static void randomTick(ServerLevel level, LongOpenHashSet sections) {
+        LongIterator iterator = sections.iterator();
+        while (iterator.hasNext()) {
+            SectionPos sectionPos = SectionPos.of(iterator.nextLong());
+            LevelChunk chunk = level.getChunk(sectionPos.x(), sectionPos.z());
+            LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionPos.y()));
+            if (!section.isRandomlyTicking()) {
+                continue;
+            }
+            for (int i = 0; i < RANDOM_TICK_SPEED; i++) {
+                BlockPos pos = level.getBlockRandomPos(sectionPos.minBlockX(), sectionPos.minBlockY(), sectionPos.minBlockZ(), 15);
+                BlockState state = section.getBlockState(pos.getX() - sectionPos.minBlockX(), pos.getY() - sectionPos.minBlockY(), pos.getZ() - sectionPos.minBlockZ());
+                if (state.isRandomlyTicking()) {
+                    state.randomTick(level, pos, level.random);
+                }
+                FluidState fluid = state.getFluidState();
+                if (fluid.isRandomlyTicking()) {
+                    fluid.randomTick(level, pos, level.random);
+                }
+            }
+        }
+    }
+
+    @BeforeBatch(batch = "fbcm_spread_field")
+    public static void beforeSpreadField(ServerLevel level) {
+        // A new generation every other tick, so the whole field is converted within the scenario
+        TestConfig.spread(Blocks.NETHER_WART_BLOCK, 2, Config.get().spreadBudgetMicros());
+    }
+
+    @AfterBatch(batch = "fbcm_spread_field")
+    public static void afterSpreadField(ServerLevel level) {
+        TestConfig.reset();
+    }
+
+    // 64 x 64 dirt walled in by stone, with a nether wart block in the middle that spreads over it
+    @GameTest(template = "perf_spread_field", batch = "fbcm_spread_field", timeoutTicks = SPREAD_TICKS + 100)
+    public static void spreadField(GameTestHelper helper) {
+        spreadField(helper, "spread_field");
+    }
+
+    @BeforeBatch(batch = "fbcm_spread_field_small_budget")
+    public static void beforeSpreadFieldSmallBudget(ServerLevel level) {
+        TestConfig.spread(Blocks.NETHER_WART_BLOCK, 2, SMALL_SPREAD_BUDGET_MICROS);
+    }
+
+    @AfterBatch(batch = "fbcm_spread_field_small_budget")
+    public static void afterSpreadFieldSmallBudget(ServerLevel level) {
+        TestConfig.reset();
+    }
+
+    // The same field with a tenth of the default budget. The budget has to hold the spread tick down, the
+    // functional side, that it only changes the speed, is FleshGameTests.spreadMaze.
+    @GameTest(template = "perf_spread_field", batch = "fbcm_spread_field_small_budget", timeoutTicks = SPREAD_TICKS + 100)
+    public static void spreadFieldSmallBudget(GameTestHelper helper) {
+        spreadField(helper, "spread_field_small_budget");
+    }
+
+    private static void spreadField(GameTestHelper helper, String scenario) {
+        ServerLevel level = helper.getLevel();
+        // Placing the template does not notify neighbours, wake the seed up the same way a placed block would
+        helper.forEveryBlockInStructure(pos -> {
+            if (level.getBlockState(pos).is(Blocks.NETHER_WART_BLOCK)) {
+                level.updateNeighborsAt(pos, Blocks.NETHER_WART_BLOCK);
+            }
+        });
+
+        Measurement measurement = Measurement.start(level);
+        helper.runAfterDelay(SPREAD_TICKS, () -> {
+            JsonObject result = measurement.finish(Subsystem.SPREAD);
+            int[] converted = new int[1];
+            helper.forEveryBlockInStructure(pos -> {
+                if (level.getBlockState(pos).is(Blocks.NETHER_WART_BLOCK)) {
+                    converted[0]++;
+                }
+            });
+            result.addProperty("converted_blocks", converted[0]);
+            // Frontier throughput of the engine in the level, next to the level free SpreadFrontierBenchmark
+            result.addProperty("converted_blocks_per_ms", converted[0] / Math.max(1.0E-3, FleshProfiler.summary(Subsystem.SPREAD).totalNanos() / 1.0E6));
+            PerfReport.check(helper, scenario, result);
+        });
+    }
+
+    @BeforeBatch(batch = "fbcm_vein_mining")
+    public static void beforeVeinMining(ServerLevel level) {
+        // The whole vein in one use, the default cap stops at 128 extra blocks
+        TestConfig.areaMiningCap(VEIN_BLOCKS);
+    }
+
+    @AfterBatch(batch = "fbcm_vein_mining")
+    public static void afterVeinMining(ServerLevel level) {
+        AreaMiner.setListener(null);
+        TestConfig.reset();
+    }
+
+    // A 10 x 10 x 10 iron ore vein broken in one use of a vein mode pickaxe. Unbreakable, so the durability does not
+    // cap the vein, and in survival, so the drops are part of the time. Every section of the vein has to be sent as
+    // exactly one ClientboundSectionBlocksUpdatePacket.
+    @GameTest(template = "perf_ore_vein", batch = "fbcm_vein_mining")
+    public static void veinMining(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        ServerPlayer player = helper.makeMockServerPlayerInLevel();
+        player.setGameMode(GameType.SURVIVAL);
+        ItemStack pickaxe = new ItemStack(FleshblockCompanionMod.DETRITUS_PICKAXE.get());
+        pickaxe.set(FleshblockCompanionMod.MINING_MODE, MiningMode.VEIN);
+        pickaxe.set(DataComponents.UNBREAKABLE, new Unbreakable(false));
+        player.setItemInHand(InteractionHand.MAIN_HAND, pickaxe);
+
+        LongOpenHashSet sections = new LongOpenHashSet();
+        LongOpenHashSet ore = new LongOpenHashSet();
+        helper.forEveryBlockInStructure(pos -> {
+            if (level.getBlockState(pos).is(Blocks.IRON_ORE)) {
+                ore.add(pos.asLong());
+                sections.add(SectionPos.asLong(pos));
+            }
+        });
+        helper.assertTrue(ore.size() == VEIN_BLOCKS, "Expected a vein of " + VEIN_BLOCKS + " iron ore, found " + ore.size());
+
+        List<ClientboundSectionBlocksUpdatePacket> packets = new ArrayList<>();
+        AreaMiner.setListener(packets::add);
+        FleshProfiler.start();
+        long start = System.nanoTime();
+        try {
+            player.gameMode.destroyBlock(helper.absolutePos(new BlockPos(1, 1, 1)));
+        } finally {
+            FleshProfiler.stop();
+            AreaMiner.setListener(null);
+        }
+        long nanos = System.nanoTime() - start;
+
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        LongIterator iterator = ore.iterator();
+        while (iterator.hasNext()) {
+            helper.assertTrue(level.getBlockState(pos.set(iterator.nextLong())).isAir(), "The vein was not broken completely, " + pos + " is left");
+        }
+        helper.assertTrue(packets.size() == sections.size(), "Expected " + sections.size() + " section packets, " + packets.size() + " were sent");
+
+        JsonObject result = new JsonObject();
+        result.addProperty("mined_blocks", ore.size());
+        result.addProperty("section_packets", packets.size());
+        // The break as a whole, vanilla's part of it included, and AreaMiner's share of it
+        result.addProperty("server_ms", nanos / 1.0E6);
+        result.addProperty("mining_ms", FleshProfiler.summary(Subsystem.AREA_MINING).totalNanos() / 1.0E6);
+        PerfReport.check(helper, "vein_mining", result);
+    }
+
+    // 500 flesh recipes of 2 to 4 items, filled into the grid of a FleshCraftingMenu one slot at a time and crafted,
+    // 2000 times. Every slot change matches the grid, the cost of a match must not grow with the number of recipes.
+    @GameTest(template = "flesh_crafting_table", batch = "fbcm_crafting")
+    public static void craftingGrid(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        ServerPlayer player = helper.makeMockServerPlayerInLevel();
+        List<List<Item>> ingredients = new ArrayList<>();
+        Random random = new Random(42L);
+        List<RecipeHolder<?>> recipes = randomRecipes(CRAFTING_RECIPES, random, ingredients);
+
+        int[] crafted = new int[1];
+        Measurement measurement = Measurement.start(level);
+        FleshGameTests.withRecipes(level, recipes, () -> {
+            FleshCraftingMenu menu = new FleshCraftingMenu(0, player.getInventory(), ContainerLevelAccess.create(level, helper.absolutePos(new BlockPos(1, 1, 1))));
+            for (int i = 0; i < CRAFTS; i++) {
+                List<Item> recipeItems = ingredients.get(random.nextInt(CRAFTING_RECIPES));
+                for (int slot = 0; slot < recipeItems.size(); slot++) {
+                    menu.getSlot(1 + slot).set(new ItemStack(recipeItems.get(slot)));
+                }
+                if (menu.getSlot(0).hasItem()) {
+                    menu.clicked(0, 0, ClickType.PICKUP, player);
+                    menu.setCarried(ItemStack.EMPTY);
+                    crafted[0]++;
+                }
+                for (int slot = 1; slot <= 9; slot++) {
+                    menu.getSlot(slot).set(ItemStack.EMPTY);
+                }
+            }
+        });
+        JsonObject result = measurement.finish(Subsystem.CRAFTING);
+        helper.assertTrue(crafted[0] == CRAFTS, "Only " + crafted[0] + " of " + CRAFTS + " crafts had a result");
+        result.addProperty("crafts", crafted[0]);
+        result.addProperty("matches_per_craft", FleshProfiler.summary(Subsystem.CRAFTING).count() / (double) CRAFTS);
+        PerfReport.check(helper, "crafting_grid", result);
+    }
+
+    // FleshRecipeMatcher.find against RecipeManager.getRecipeFor, which tests matches() of every flesh recipe in
+    // turn, for 50, 500 and 5000 random recipes of 2 to 4 items. Half of the grids hold a recipe, the other half
+    // random items. find is timed with the same grid over and over (cache hits) and with more distinct grids than
+    // it caches (misses), all lookups in microseconds per lookup after a warm up round.
+    @GameTest(template = "flesh_crafting_table", batch = "fbcm_recipe_lookup")
+    public static void recipeLookup(GameTestHelper helper) {
+        ServerLevel level = helper.getLevel();
+        JsonObject result = new JsonObject();
+        for (int count : RECIPE_LOOKUP_COUNTS) {
+            List<List<Item>> ingredients = new ArrayList<>();
+            Random random = new Random(42L);
+            List<RecipeHolder<?>> recipes = randomRecipes(count, random, ingredients);
+            List<Item> items = BuiltInRegistries.ITEM.stream().filter(item -> item != Items.AIR).toList();
+            CraftingInput[] grids = new CraftingInput[RECIPE_LOOKUP_GRIDS];
+            for (int i = 0; i < grids.length; i++) {
+                List<Item> gridItems = i % 2 == 0 ? ingredients.get(random.nextInt(count))
+                        : random.ints(2 + random.nextInt(3), 0, items.size()).mapToObj(items::get).toList();
+                List<ItemStack> stacks = new ArrayList<>();
+                for (int slot = 0; slot < 9; slot++) {
+                    stacks.add(slot < gridItems.size() ? new ItemStack(gridItems.get(slot)) : ItemStack.EMPTY);
+                }
+                grids[i] = CraftingInput.of(3, 3, stacks);
+            }
+
+            FleshGameTests.withRecipes(level, recipes, () -> {
+                FleshRecipeMatcher matcher = FleshRecipeMatcher.get(level);
+                RecipeManager recipeManager = level.getRecipeManager();
+                for (int round = 0; round < 2; round++) {
+                    long hit = timeLookups(grids, 1, grid -> matcher.find(grid, level));
+                    long miss = timeLookups(grids, grids.length, grid -> matcher.find(grid, level));
+                    long scan = timeLookups(grids, grids.length, grid -> recipeManager.getRecipeFor(FleshblockCompanionMod.FLESH_CRAFTING.get(), grid, level));
+                    // The first round only warms up
+                    if (round == 1) {
+                        result.addProperty("find_hit_us_" + count, hit / 1.0E3 / RECIPE_LOOKUPS);
+                        result.addProperty("find_miss_us_" + count, miss / 1.0E3 / RECIPE_LOOKUPS);
+                        result.addProperty("scan_us_" + count, scan / 1.0E3 / RECIPE_LOOKUPS);
+                        result.addProperty("find_miss_to_scan_" + count, miss / (double) Math.max(1L, scan));
+                    }
+                }
+            });
+        }
+        PerfReport.check(helper, "recipe_lookup", result);
+    }
+
+    // Nanoseconds for RECIPE_LOOKUPS lookups, cycling through the first distinct grids
+    private static long timeLookups(CraftingInput[] grids, int distinct, Consumer<CraftingInput> lookup) {
+        long start = System.nanoTime();
+        for (int i = 0; i < RECIPE_LOOKUPS; i++) {
+            lookup.accept(grids[i % distinct]);
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Flesh recipes of 2 to 4 random items, the items of each recipe are added to ingredients
+    private static List<RecipeHolder<?>> randomRecipes(int count, Random random, List<List<Item>> ingredients) {
+        List<RecipeHolder<?>> recipes = new ArrayList<>();
+        List<Item> items = BuiltInRegistries.ITEM.stream().filter(item -> item != Items.AIR).toList();
+        for (int i = 0; i < count; i++) {
+            List<Item> recipeItems = new ArrayList<>();
+            NonNullList<Ingredient> recipeIngredients = NonNullList.create();
+            for (int j = 2 + random.nextInt(3); j > 0; j--) {
+                Item item = items.get(random.nextInt(items.size()));
+                recipeItems.add(item);
+                recipeIngredients.add(Ingredient.of(item));
+            }
+            ingredients.add(recipeItems);
+            recipes.add(new RecipeHolder<>(ResourceLocation.fromNamespaceAndPath(FleshblockCompanionMod.MODID, "perf_" + i),
+                    new FleshCraftingRecipe("", CraftingBookCategory.MISC, new ItemStack(Items.LEATHER), recipeIngredients)));
+        }
+        return recipes;
+    }
+
+    // Config.get() against what it replaces, in nanoseconds per read on the loaded config: ConfigValue.get() on the
+    // spec, and resolving the configured item names on every item check.
+    @GameTest(template = "flesh_crafting_table", batch = "fbcm_config_reads")
+    public static void configReads(GameTestHelper helper) {
+        Item item = Items.IRON_INGOT;
+        JsonObject result = new JsonObject();
+        long sum = 0L;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < CONFIG_READS; i++) {
+                sum += Config.GROWTH_INTERVAL.get();
+            }
+            long spec = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < CONFIG_READS; i++) {
+                sum += Config.get().growthInterval();
+            }
+            long snapshot = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < CONFIG_READS; i++) {
+                for (String itemName : Config.ITEM_STRINGS.get()) {
+                    sum += BuiltInRegistries.ITEM.get(ResourceLocation.parse(itemName)) == item ? 1 : 0;
+                }
+            }
+            long itemStrings = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < CONFIG_READS; i++) {
+                sum += Config.get().items().contains(item) ? 1 : 0;
+            }
+            long snapshotItems = System.nanoTime() - start;
+
+            // The first round only warms up
+            if (round == 1) {
+                result.addProperty("spec_read_ns", spec / (double) CONFIG_READS);
+                result.addProperty("snapshot_read_ns", snapshot / (double) CONFIG_READS);
+                result.addProperty("item_strings_lookup_ns", itemStrings / (double) CONFIG_READS);
+                result.addProperty("snapshot_item_lookup_ns", snapshotItems / (double) CONFIG_READS);
+                result.addProperty("configured_items", Config.ITEM_STRINGS.get().size());
+            }
+        }
+        // Keeps the reads from being optimized away
+        result.addProperty("checksum", sum);
+        PerfReport.check(helper, "config_reads", result);
+    }
+
+    // Profiles the mod and counts what it and the whole server thread allocate, from start() to finish()
+    private static final class Measurement {
+        private final ServerLevel level;
+        private final long startTick;
+        private final long startAllocated;
+        private long ticks;
+
+        private Measurement(ServerLevel level, long startTick, long startAllocated) {
+            this.level = level;
+            this.startTick = startTick;
+            this.startAllocated = startAllocated;
+        }
+
+        static Measurement start(ServerLevel level) {
+            FleshProfiler.start();
+            FleshProfiler.countAllocations(Thread.currentThread());
+            return new Measurement(level, level.getGameTime(), allocatedBytes());
+        }
+
+        long ticks() {
+            return this.ticks;
+        }
+
+        // Tick time in ms per tick over all TICK_SUBSYSTEMS, percentiles of the scenario's main subsystem
+        JsonObject finish(Subsystem main) {
+            long allocated = allocatedBytes() - this.startAllocated;
+            long modAllocated = FleshProfiler.allocatedBytes();
+            this.ticks = Math.max(1L, this.level.getGameTime() - this.startTick);
+            FleshProfiler.countAllocations(null);
+            FleshProfiler.stop();
+
+            long modNanos = 0L;
+            for (Subsystem subsystem : TICK_SUBSYSTEMS) {
+                modNanos += FleshProfiler.summary(subsystem).totalNanos();
+            }
+            TimerHistogram.Summary summary = FleshProfiler.summary(main);
+
+            JsonObject result = new JsonObject();
+            result.addProperty("ticks", this.ticks);
+            result.addProperty("subsystem", main.id());
+            result.addProperty("mod_ms_per_tick", modNanos / 1.0E6 / this.ticks);
+            result.addProperty("calls", summary.count());
+            result.addProperty("p50_ms", summary.p50Nanos() / 1.0E6);
+            result.addProperty("p99_ms", summary.p99Nanos() / 1.0E6);
+            result.addProperty("max_ms", summary.maxNanos() / 1.0E6);
+            // Inside the mod's timed sections only, which is what the budget is for
+            result.addProperty("mod_alloc_kb_per_tick", modAllocated / 1024.0 / this.ticks);
+            // The whole server thread, vanilla ticking of the scenario included, for comparison
+            result.addProperty("server_alloc_kb_per_tick", allocated / 1024.0 / this.ticks);
+            return result;
+        }
+
+        private static long allocatedBytes() {
+            return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    // Encodes every FleshStateDelta, and the vanilla packets the same changes would have cost, to count their bytes.
+    // Only the packet bodies are counted, framing and compression are the same for both.
+    private static final class SyncBandwidth implements Consumer<FleshStateDelta> {
+        private final ServerLevel level;
+        private long blocks;
+        private long deltaPackets;
+        private long deltaBytes;
+        // What Block.UPDATE_CLIENTS would have sent, the ChunkHolder batches those per section and tick as well
+        private long sectionPackets;
+        private long sectionBytes;
+        // One ClientboundBlockUpdatePacket per changed block
+        private long blockBytes;
+
+        SyncBandwidth(ServerLevel level) {
+            this.level = level;
+        }
+
+        @Override
+        public void accept(FleshStateDelta delta) {
+            RegistryFriendlyByteBuf buffer = new RegistryFriendlyByteBuf(Unpooled.buffer(), this.level.registryAccess());
+            try {
+                buffer.writeResourceLocation(FleshStateDelta.TYPE.id());
+                FleshStateDelta.STREAM_CODEC.encode(buffer, delta);
+                this.deltaBytes += buffer.readableBytes();
+                this.deltaPackets++;
+
+                SectionPos sectionPos = SectionPos.of(delta.section());
+                for (short position : delta.positions()) {
+                    BlockPos pos = sectionPos.relativeToBlockPos(position);
+                    buffer.clear();
+                    ClientboundBlockUpdatePacket.STREAM_CODEC.encode(buffer, new ClientboundBlockUpdatePacket(pos, this.level.getBlockState(pos)));
+                    this.blockBytes += buffer.readableBytes();
+                }
+                this.blocks += delta.positions().length;
+
+                // A single change is sent as a block update by vanilla as well
+                if (delta.positions().length == 1) {
+                    this.sectionBytes += buffer.readableBytes();
+                } else {
+                    LevelChunk chunk = this.level.getChunk(sectionPos.x(), sectionPos.z());
+                    buffer.clear();
+                    ClientboundSectionBlocksUpdatePacket.STREAM_CODEC.encode(buffer, new ClientboundSectionBlocksUpdatePacket(sectionPos,
+                            new ShortOpenHashSet(delta.positions()), chunk.getSection(chunk.getSectionIndexFromSectionY(sectionPos.y()))));
+                    this.sectionBytes += buffer.readableBytes();
+                }
+                this.sectionPackets++;
+            } finally {
+                buffer.release();
+            }
+        }
+
+        void report(JsonObject result, long ticks) {
+            double seconds = ticks / 20.0;
+            result.addProperty("sync_blocks_per_second", this.blocks / seconds);
+            result.addProperty("sync_packets_per_second", this.deltaPackets / seconds);
+            result.addProperty("sync_bytes_per_second", this.deltaBytes / seconds);
+            result.addProperty("vanilla_section_packets_per_second", this.sectionPackets / seconds);
+            result.addProperty("vanilla_section_bytes_per_second", this.sectionBytes / seconds);
+            result.addProperty("per_block_packets_per_second", this.blocks / seconds);
+            result.addProperty("per_block_bytes_per_second", this.blockBytes / seconds);
+        }
+    }
+}
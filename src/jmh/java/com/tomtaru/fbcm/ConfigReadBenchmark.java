@@ -0,0 +1,43 @@
+package com.tomtaru.fbcm;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Config.get() against a plain field, the snapshot is meant to be cheap enough to read on every use. What it
+// replaces, ConfigValue.get() on the loaded spec and resolving the item list from its strings, needs the game and
+// the mod loaded and is timed by the config_reads scenario in PerfScenarios.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigReadBenchmark {
+    private final ConfigSnapshot field = ConfigSnapshot.DEFAULTS;
+
+    @Benchmark
+    public int fieldRead() {
+        return this.field.growthInterval();
+    }
+
+    @Benchmark
+    public int snapshotRead() {
+        return Config.get().growthInterval();
+    }
+
+    // What the growth scheduler reads at the start of every tick
+    @Benchmark
+    public long snapshotReadSchedulerValues() {
+        ConfigSnapshot config = Config.get();
+        return config.growthBudgetMicros() * 1000L + config.growthInterval() + config.growthMaxCatchUp();
+    }
+}
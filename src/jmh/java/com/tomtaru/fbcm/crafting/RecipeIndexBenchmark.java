@@ -0,0 +1,86 @@
+package com.tomtaru.fbcm.crafting;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The item set keys of FleshRecipeMatcher, in operations per second for 50 to 5000 recipes of 1 to 9 items out of
+// 20000 item ids. Grids are plain id arrays, a real ItemStack needs the game bootstrapped. The lookup against
+// RecipeManager's scan over real recipes is timed by the recipe_lookup scenario in PerfScenarios.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeIndexBenchmark {
+    private static final int ITEMS = 20_000;
+    private static final int GRIDS = 1_024;
+
+    @Param({ "50", "500", "5000" })
+    public int recipes;
+
+    private final Map<FleshRecipeMatcher.ItemSetKey, Integer> index = new HashMap<>();
+    private final int[][] grids = new int[GRIDS][];
+    private int next;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+        int[][] recipeIds = new int[this.recipes][];
+        for (int i = 0; i < this.recipes; i++) {
+            int[] ids = new int[1 + random.nextInt(9)];
+            FleshRecipeMatcher.ItemSetKey key = new FleshRecipeMatcher.ItemSetKey(new int[0]);
+            for (int j = 0; j < ids.length; j++) {
+                ids[j] = random.nextInt(ITEMS);
+                key = key.with(ids[j]);
+            }
+            recipeIds[i] = ids;
+            this.index.putIfAbsent(key, i);
+        }
+
+        // Half of the grids hold a recipe, the rest random items
+        for (int i = 0; i < GRIDS; i++) {
+            this.grids[i] = i % 2 == 0 ? recipeIds[random.nextInt(this.recipes)].clone() : random.ints(1 + random.nextInt(9), 0, ITEMS).toArray();
+        }
+    }
+
+    private int[] nextGrid() {
+        return this.grids[this.next++ & GRIDS - 1];
+    }
+
+    // ItemSetKey.of sorts in place, so every call gets a copy, like the fresh array of the real lookup
+    @Benchmark
+    public Integer indexLookup() {
+        int[] grid = this.nextGrid();
+        return this.index.get(FleshRecipeMatcher.ItemSetKey.of(grid.clone(), grid.length));
+    }
+
+    @Benchmark
+    public FleshRecipeMatcher.ItemSetKey keyOfGrid() {
+        int[] grid = this.nextGrid();
+        return FleshRecipeMatcher.ItemSetKey.of(grid.clone(), grid.length);
+    }
+
+    @Benchmark
+    public FleshRecipeMatcher.ItemSetKey keyWith() {
+        FleshRecipeMatcher.ItemSetKey key = new FleshRecipeMatcher.ItemSetKey(new int[0]);
+        for (int id : this.nextGrid()) {
+            key = key.with(id);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,86 @@
+package com.tomtaru.fbcm.farm;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.minecraft.core.BlockPos;
+
+// The FleshIndex side of a growth pass for farms of 10k to 1M tilled flesh, one full layer (256 blocks) per chunk.
+// The level side, the growth pass against vanilla random ticks on the same field, is timed by the
+// growth_versus_random_ticks scenario in PerfScenarios.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FleshIndexBenchmark {
+    @Param({ "10000", "100000", "1000000" })
+    public int blocks;
+
+    private FleshIndex[] indices;
+
+    private final FleshIndex single = new FleshIndex();
+    private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+    private int next;
+
+    @Setup
+    public void setup() {
+        int chunks = (this.blocks + 255) / 256;
+        this.indices = new FleshIndex[chunks];
+        int remaining = this.blocks;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            FleshIndex index = new FleshIndex();
+            for (int i = 0; i < 256 && remaining > 0; i++, remaining--) {
+                index.add(new BlockPos(i & 15, 64, i >> 4));
+            }
+            this.indices[chunk] = index;
+        }
+        for (int i = 0; i < 256; i++) {
+            this.single.add(new BlockPos(i & 15, 64, i >> 4));
+        }
+    }
+
+    // Walks every index section by section like FleshGrowthScheduler.advance, without the level
+    @Benchmark
+    public int walkSections() {
+        int sum = 0;
+        for (FleshIndex index : this.indices) {
+            int[] sorted = index.sorted();
+            int i = 0;
+            while (i < sorted.length) {
+                int section = FleshIndex.sectionY(sorted[i]);
+                for (; i < sorted.length && FleshIndex.sectionY(sorted[i]) == section; i++) {
+                    sum += FleshIndex.unpackX(sorted[i]) + FleshIndex.unpackY(sorted[i]) + FleshIndex.unpackZ(sorted[i]);
+                }
+            }
+        }
+        return sum;
+    }
+
+    // The index upkeep of placing and breaking one tilled flesh block next to a full chunk layer
+    @Benchmark
+    public boolean placeAndBreak() {
+        int i = this.next++ & 255;
+        this.pos.set(i & 15, 200, i >> 4);
+        return this.single.add(this.pos) & this.single.remove(this.pos);
+    }
+
+    // The first growth pass of a chunk after a block changed, which sorts its positions again
+    @Benchmark
+    public int placeAndBreakThenWalk() {
+        this.placeAndBreak();
+        return this.single.sorted().length;
+    }
+}
@@ -0,0 +1,65 @@
+package com.tomtaru.fbcm.network;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.shorts.Short2ByteMap;
+import it.unimi.dsi.fastutil.shorts.Short2ByteOpenHashMap;
+import net.minecraft.core.SectionPos;
+
+// Building, encoding and decoding the delta of a section with a full 16 x 16 layer of crops growing at once
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleshStateDeltaBenchmark {
+    private static final long SECTION = SectionPos.asLong(12, 4, -7);
+
+    private final Short2ByteMap changes = new Short2ByteOpenHashMap();
+    private final ByteBuf buffer = Unpooled.buffer(1024);
+    private FleshStateDelta delta;
+
+    @Setup
+    public void setup() {
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                // Crops on y 1, two rows a step behind
+                this.changes.put((short) (x << 8 | z << 4 | 1), (byte) (z < 2 ? 3 : 4));
+            }
+        }
+        this.delta = FleshStateSync.delta(SECTION, this.changes);
+    }
+
+    @Benchmark
+    public FleshStateDelta build() {
+        return FleshStateSync.delta(SECTION, this.changes);
+    }
+
+    @Benchmark
+    public int encode() {
+        this.buffer.clear();
+        FleshStateDelta.STREAM_CODEC.encode(this.buffer, this.delta);
+        return this.buffer.writerIndex();
+    }
+
+    @Benchmark
+    public FleshStateDelta roundTrip() {
+        this.buffer.clear();
+        FleshStateDelta.STREAM_CODEC.encode(this.buffer, this.delta);
+        return FleshStateDelta.STREAM_CODEC.decode(this.buffer);
+    }
+}
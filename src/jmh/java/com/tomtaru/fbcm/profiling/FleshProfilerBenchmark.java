@@ -0,0 +1,42 @@
+package com.tomtaru.fbcm.profiling;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// What a timed section costs with profiling off, and what recording into the histogram costs when it is on
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleshProfilerBenchmark {
+    private final TimerHistogram histogram = new TimerHistogram();
+
+    @Benchmark
+    public void disabledSection() {
+        long start = FleshProfiler.begin();
+        FleshProfiler.end(Subsystem.GROWTH, start);
+    }
+
+    @Benchmark
+    public void record() {
+        this.histogram.record(System.nanoTime() & 0xFFFFF);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        this.histogram.record(System.nanoTime() & 0xFFFFF);
+    }
+}
@@ -0,0 +1,103 @@
+package com.tomtaru.fbcm.spread;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Frontier blocks processed per ms by one generation of LevelSpread.processBatch, against a section of block ids
+// instead of the level: drain the running generation bit by bit, convert the spreadable neighbours and queue them
+// for the next one. Each invocation starts from a dirt section again, the copy is part of the measured time.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpreadFrontierBenchmark {
+    private static final byte SPREADABLE = 1;
+    private static final byte FLESH = 2;
+    private static final int[][] OFFSETS = { { 1, 0, 0 }, { -1, 0, 0 }, { 0, 1, 0 }, { 0, -1, 0 }, { 0, 0, 1 }, { 0, 0, -1 } };
+
+    private final byte[] dirt = filled(SPREADABLE);
+    private final byte[] blocks = new byte[4096];
+    private final SpreadState.Section section = new SpreadState.Section();
+
+    // Every block of the section is on the frontier, the worst case of a dense generation
+    @Benchmark
+    @OperationsPerInvocation(4096)
+    public int fullSection() {
+        System.arraycopy(this.dirt, 0, this.blocks, 0, this.blocks.length);
+        for (int index = 0; index < 4096; index++) {
+            this.blocks[index] = FLESH;
+            this.section.setNext(index);
+        }
+        return this.generation();
+    }
+
+    // One flesh layer over dirt, the frontier of a field spreading downwards
+    @Benchmark
+    @OperationsPerInvocation(256)
+    public int layer() {
+        System.arraycopy(this.dirt, 0, this.blocks, 0, this.blocks.length);
+        for (int index = 8 << 8; index < 9 << 8; index++) {
+            this.blocks[index] = FLESH;
+            this.section.setNext(index);
+        }
+        return this.generation();
+    }
+
+    private int generation() {
+        this.section.promote();
+        int converted = 0;
+        for (int word = 0; word < SpreadState.Section.WORDS; word++) {
+            while (this.section.current[word] != 0L) {
+                int index = word << 6 | Long.numberOfTrailingZeros(this.section.current[word]);
+                this.section.current[word] &= this.section.current[word] - 1L;
+                converted += this.spreadFrom(index & 15, index >> 8, index >> 4 & 15);
+            }
+        }
+        // The converted blocks would be the next generation, clear them so every invocation starts the same
+        Arrays.fill(this.section.next, 0L);
+        return converted;
+    }
+
+    private int spreadFrom(int x, int y, int z) {
+        if (this.blocks[SpreadState.index(x, y, z)] != FLESH) {
+            return 0;
+        }
+
+        int converted = 0;
+        for (int[] offset : OFFSETS) {
+            int nx = x + offset[0];
+            int ny = y + offset[1];
+            int nz = z + offset[2];
+            // Neighbours in other sections belong to another section's batch
+            if ((nx | ny | nz) < 0 || nx > 15 || ny > 15 || nz > 15) {
+                continue;
+            }
+            int neighbour = SpreadState.index(nx, ny, nz);
+            if (this.blocks[neighbour] == SPREADABLE) {
+                this.blocks[neighbour] = FLESH;
+                this.section.setNext(neighbour);
+                converted++;
+            }
+        }
+        return converted;
+    }
+
+    private static byte[] filled(byte block) {
+        byte[] blocks = new byte[4096];
+        Arrays.fill(blocks, block);
+        return blocks;
+    }
+}
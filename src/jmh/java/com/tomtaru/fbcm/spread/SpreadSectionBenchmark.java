@@ -0,0 +1,61 @@
+package com.tomtaru.fbcm.spread;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The frontier bookkeeping of one section per spread generation: queueing blocks, promoting the generation and
+// draining it bit by bit like LevelSpread.processBatch, without touching the level.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpreadSectionBenchmark {
+    @Param({ "16", "256", "4096" })
+    public int frontier;
+
+    private int[] indices;
+    private final SpreadState.Section section = new SpreadState.Section();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42L);
+        this.indices = this.frontier == 4096 ? IntStream.range(0, 4096).toArray() : random.ints(this.frontier, 0, 4096).toArray();
+    }
+
+    @Benchmark
+    public long generation() {
+        for (int index : this.indices) {
+            this.section.setNext(index);
+        }
+        this.section.promote();
+
+        long sum = 0L;
+        for (int word = 0; word < SpreadState.Section.WORDS; word++) {
+            while (this.section.current[word] != 0L) {
+                sum += word << 6 | Long.numberOfTrailingZeros(this.section.current[word]);
+                this.section.current[word] &= this.section.current[word] - 1L;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public boolean idleCheck() {
+        return this.section.isEmpty();
+    }
+}
@@ -0,0 +1,33 @@
+package com.tomtaru.fbcm;
+
+import com.tomtaru.fbcm.client.animation.AnimationMode;
+
+import net.neoforged.neoforge.common.ModConfigSpec;
+
+// Client only options, registered from FleshblockCompanionModClient so dedicated servers never see them.
+public class ClientConfig {
+    private static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
+
+    public static final ModConfigSpec.EnumValue<AnimationMode> ANIMATION_MODE = BUILDER
+            .comment("How the animated flesh textures are updated.",
+                    "VANILLA: blend and upload every interpolated frame each tick like vanilla does.",
+                    "PRECOMPUTED: blend all frames once when the atlas is stitched and only upload when the frame changes.",
+                    "FROZEN: never animate, the first frame is shown until the mode changes again.")
+            .defineEnum("animationMode", AnimationMode.PRECOMPUTED);
+
+    public static final ModConfigSpec.IntValue ANIMATION_PAUSE_FRAMES = BUILDER
+            .comment("Stop animating the flesh textures after this many rendered frames without any fbcm block in view. 0 never pauses.",
+                    "Only applies to the PRECOMPUTED mode.")
+            .defineInRange("animationPauseFrames", 60, 0, Integer.MAX_VALUE);
+
+    public static final ModConfigSpec.BooleanValue MERGED_TOP_FACES = BUILDER
+            .comment("Draw the tops of neighbouring, evenly lit tilled flesh blocks as one merged quad instead of one quad per block.",
+                    "Large flat farms mesh far fewer quads, but the top texture is stretched over the merged quad and has no smooth lighting.")
+            .define("mergedTopFaces", false);
+
+    public static final ModConfigSpec.IntValue MERGED_TOP_FACE_SIZE = BUILDER
+            .comment("The largest width and depth of a merged tilled flesh top in blocks, how far the top texture may be stretched.")
+            .defineInRange("mergedTopFaceSize", 4, 1, 16);
+
+    static final ModConfigSpec SPEC = BUILDER.build();
+}
@@ -1,12 +1,13 @@
 package com.tomtaru.fbcm;
 
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
+import javax.annotation.Nullable;
+
+import net.minecraft.Util;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.world.item.Item;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.fml.event.config.ModConfigEvent;
@@ -14,6 +15,7 @@ import net.neoforged.neoforge.common.ModConfigSpec;
 
 // An example config class. This is not required, but it's a good idea to have one to keep your config organized.
 // Demonstrates how to use Neo's config APIs
+@EventBusSubscriber(modid = FleshblockCompanionMod.MODID)
 public class Config {
     private static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
 
@@ -34,8 +36,112 @@ public class Config {
             .comment("A list of items to log on common setup.")
             .defineListAllowEmpty("items", List.of("minecraft:iron_ingot"), () -> "", Config::validateItemName);
 
+    public static final ModConfigSpec.IntValue GROWTH_BUDGET_MICROS = BUILDER
+            .comment("How many microseconds per tick and dimension the tilled flesh growth scheduler may spend.",
+                    "Chunks that do not fit in the budget are caught up on a later tick.")
+            .defineInRange("growthBudgetMicros", 500, 1, 50_000);
+
+    public static final ModConfigSpec.IntValue GROWTH_INTERVAL = BUILDER
+            .comment("Ticks between two growth steps of the crops on tilled flesh")
+            .defineInRange("growthInterval", 600, 1, Integer.MAX_VALUE);
+
+    public static final ModConfigSpec.IntValue GROWTH_MAX_CATCH_UP = BUILDER
+            .comment("The most growth steps a chunk catches up on at once, e.g. after being unloaded for a long time")
+            .defineInRange("growthMaxCatchUp", 8, 1, Integer.MAX_VALUE);
+
+    public static final ModConfigSpec.ConfigValue<String> SPREAD_BLOCK = BUILDER
+            .comment("The flesh block that spreads over the blocks in the fbcm:flesh_spreadable tag. Leave empty to disable spreading.")
+            .define("spreadBlock", "", Config::validateOptionalBlockName);
+
+    public static final ModConfigSpec.IntValue SPREAD_INTERVAL = BUILDER
+            .comment("Ticks between two spread generations, every generation grows the flesh by one block in all directions")
+            .defineInRange("spreadInterval", 100, 1, Integer.MAX_VALUE);
+
+    public static final ModConfigSpec.IntValue SPREAD_BUDGET_MICROS = BUILDER
+            .comment("How many microseconds per tick the flesh spread may spend. A generation that does not fit simply takes several ticks.")
+            .defineInRange("spreadBudgetMicros", 1000, 1, 50_000);
+
+    public static final ModConfigSpec.IntValue AREA_MINING_CAP = BUILDER
+            .comment("The most extra blocks a detritus tool breaks or tills in one use in its area and vein modes")
+            .defineInRange("areaMiningCap", 128, 1, 4096);
+
     static final ModConfigSpec SPEC = BUILDER.build();
 
+    // What gameplay code reads, see get()
+    private static volatile ConfigSnapshot snapshot = ConfigSnapshot.DEFAULTS;
+    // Config names can only be resolved once every mod has registered its blocks and items
+    private static volatile boolean registriesReady;
+    private static long reloads;
+    private static long publishedReload;
+    // The loaded snapshot while override() is active
+    @Nullable
+    private static ConfigSnapshot beforeOverride;
+
+    // The current values, resolved and immutable. Cheap enough to call on every use, but hold on to the result
+    // for the duration of one operation so all values come from the same config.
+    public static ConfigSnapshot get() {
+        return snapshot;
+    }
+
+    // Replaces the values until called again with null, nothing is written to the config file. Only for TestConfig
+    // in the gametest source set, a config reload while an override is active replaces the override.
+    static synchronized void override(@Nullable ConfigSnapshot values) {
+        if (values != null) {
+            if (beforeOverride == null) {
+                beforeOverride = snapshot;
+            }
+            snapshot = values;
+        } else if (beforeOverride != null) {
+            snapshot = beforeOverride;
+            beforeOverride = null;
+        }
+    }
+
+    static void onRegistriesReady() {
+        registriesReady = true;
+        long reload = nextReload();
+        publish(reload, ConfigSnapshot.build());
+    }
+
+    @SubscribeEvent
+    static void onLoad(final ModConfigEvent.Loading event) {
+        if (event.getConfig().getSpec() == SPEC && registriesReady) {
+            long reload = nextReload();
+            publish(reload, ConfigSnapshot.build());
+        }
+    }
+
+    @SubscribeEvent
+    static void onReload(final ModConfigEvent.Reloading event) {
+        if (event.getConfig().getSpec() != SPEC || !registriesReady) {
+            return;
+        }
+
+        // Build the new snapshot in the background and swap it in when done, readers keep the old one until then.
+        long reload = nextReload();
+        CompletableFuture.supplyAsync(ConfigSnapshot::build, Util.backgroundExecutor()).thenAccept(built -> publish(reload, built));
+    }
+
+    // Every snapshot is numbered before it is built, the number is taken before the config values are read
+    private static synchronized long nextReload() {
+        return ++reloads;
+    }
+
+    // Loads, reloads and the registry setup all publish through here. If they overlap only the newest one gets
+    // published, a background reload that finishes late never replaces a snapshot that was started after it.
+    private static synchronized void publish(long reload, ConfigSnapshot built) {
+        if (reload > publishedReload) {
+            publishedReload = reload;
+            snapshot = built;
+        }
+    }
+
+    // Only checks the syntax, modded blocks are not registered yet when the config is validated.
+    // Unknown blocks are reported when the ConfigSnapshot is built.
+    private static boolean validateOptionalBlockName(final Object obj) {
+        return obj instanceof String blockName && (blockName.isEmpty() || ResourceLocation.tryParse(blockName) != null);
+    }
+
     private static boolean validateItemName(final Object obj) {
         return obj instanceof String itemName && BuiltInRegistries.ITEM.containsKey(ResourceLocation.parse(itemName));
     }
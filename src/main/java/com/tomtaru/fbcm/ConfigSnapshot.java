@@ -0,0 +1,81 @@
+package com.tomtaru.fbcm;
+
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSets;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.Block;
+
+// Every value of Config, read and resolved once. Gameplay code gets the current one through Config.get(),
+// which is a single volatile read, instead of going through ConfigValue.get() or parsing resource locations.
+public record ConfigSnapshot(
+        boolean logDirtBlock,
+        int magicNumber,
+        String magicNumberIntroduction,
+        Set<Item> items,
+        int growthBudgetMicros,
+        int growthInterval,
+        int growthMaxCatchUp,
+        // null while spreading is disabled
+        @Nullable Block spreadBlock,
+        int spreadInterval,
+        int spreadBudgetMicros,
+        int areaMiningCap) {
+
+    // Used until the config is loaded for the first time
+    static final ConfigSnapshot DEFAULTS = new ConfigSnapshot(
+            Config.LOG_DIRT_BLOCK.getDefault(),
+            Config.MAGIC_NUMBER.getDefault(),
+            Config.MAGIC_NUMBER_INTRODUCTION.getDefault(),
+            Set.of(),
+            Config.GROWTH_BUDGET_MICROS.getDefault(),
+            Config.GROWTH_INTERVAL.getDefault(),
+            Config.GROWTH_MAX_CATCH_UP.getDefault(),
+            null,
+            Config.SPREAD_INTERVAL.getDefault(),
+            Config.SPREAD_BUDGET_MICROS.getDefault(),
+            Config.AREA_MINING_CAP.getDefault());
+
+    static ConfigSnapshot build() {
+        // Identity set, Items are singletons so this is all a contains() check needs
+        ReferenceOpenHashSet<Item> items = new ReferenceOpenHashSet<>();
+        for (String itemName : Config.ITEM_STRINGS.get()) {
+            ResourceLocation location = ResourceLocation.tryParse(itemName);
+            if (location != null && BuiltInRegistries.ITEM.containsKey(location)) {
+                items.add(BuiltInRegistries.ITEM.get(location));
+            }
+        }
+
+        return new ConfigSnapshot(
+                Config.LOG_DIRT_BLOCK.get(),
+                Config.MAGIC_NUMBER.get(),
+                Config.MAGIC_NUMBER_INTRODUCTION.get(),
+                ReferenceSets.unmodifiable(items),
+                Config.GROWTH_BUDGET_MICROS.get(),
+                Config.GROWTH_INTERVAL.get(),
+                Config.GROWTH_MAX_CATCH_UP.get(),
+                resolveBlock(Config.SPREAD_BLOCK.get()),
+                Config.SPREAD_INTERVAL.get(),
+                Config.SPREAD_BUDGET_MICROS.get(),
+                Config.AREA_MINING_CAP.get());
+    }
+
+    @Nullable
+    private static Block resolveBlock(String blockName) {
+        if (blockName.isEmpty()) {
+            return null;
+        }
+
+        ResourceLocation location = ResourceLocation.tryParse(blockName);
+        if (location == null || !BuiltInRegistries.BLOCK.containsKey(location)) {
+            FleshblockCompanionMod.LOGGER.warn("Unknown block {} in the fbcm config, ignoring it", blockName);
+            return null;
+        }
+        return BuiltInRegistries.BLOCK.get(location);
+    }
+}
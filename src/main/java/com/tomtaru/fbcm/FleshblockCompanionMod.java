@@ -4,16 +4,28 @@ import org.slf4j.Logger;
 
 import com.mojang.logging.LogUtils;
 
+import net.minecraft.core.component.DataComponentType;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.BlockTags;
 import net.minecraft.world.food.FoodProperties;
+import net.minecraft.world.item.AxeItem;
 import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.CreativeModeTab;
 import net.minecraft.world.item.CreativeModeTabs;
 import net.minecraft.world.item.Item;
+import net.minecraft.world.item.PickaxeItem;
+import net.minecraft.world.item.ShovelItem;
+import net.minecraft.world.item.SwordItem;
+import net.minecraft.world.item.Tier;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeSerializer;
+import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.SoundType;
 import net.minecraft.world.level.block.state.BlockBehaviour;
 import net.minecraft.world.level.material.MapColor;
 import net.neoforged.api.distmarker.Dist;
@@ -23,15 +35,33 @@ import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.config.ModConfig;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
+import net.neoforged.neoforge.attachment.AttachmentType;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.common.SimpleTier;
 import net.neoforged.neoforge.event.BuildCreativeModeTabContentsEvent;
+import net.neoforged.neoforge.event.RegisterCommandsEvent;
 import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
 import net.neoforged.neoforge.registries.DeferredBlock;
 import net.neoforged.neoforge.registries.DeferredHolder;
 import net.neoforged.neoforge.registries.DeferredItem;
 import net.neoforged.neoforge.registries.DeferredRegister;
+import net.neoforged.neoforge.registries.NeoForgeRegistries;
 
 // My classes
+import com.tomtaru.fbcm.block.FleshCraftingTableBlock;
+import com.tomtaru.fbcm.block.TilledFleshBlock;
+import com.tomtaru.fbcm.crafting.FleshCraftingRecipe;
+import com.tomtaru.fbcm.crafting.FleshCraftingRecipeSerializer;
+import com.tomtaru.fbcm.farm.FleshIndex;
+import com.tomtaru.fbcm.item.DetritusHoeItem;
+import com.tomtaru.fbcm.item.MiningMode;
+import com.tomtaru.fbcm.network.FleshStateSync;
+import com.tomtaru.fbcm.profiling.FleshProfiler;
+import com.tomtaru.fbcm.profiling.ProfileCommand;
+import com.tomtaru.fbcm.profiling.Subsystem;
+import com.tomtaru.fbcm.spread.FleshSpreadEngine;
+import com.tomtaru.fbcm.spread.SpreadState;
 
 
 
@@ -42,6 +72,59 @@ public class FleshblockCompanionMod {
     public static final String MODID = "fbcm";
     // Directly reference a slf4j logger
     public static final Logger LOGGER = LogUtils.getLogger();
+    // Create a Deferred Register to hold Blocks which will all be registered under the "fbcm" namespace
+    public static final DeferredRegister.Blocks BLOCKS = DeferredRegister.createBlocks(MODID);
+    // Create a Deferred Register to hold Items which will all be registered under the "fbcm" namespace
+    public static final DeferredRegister.Items ITEMS = DeferredRegister.createItems(MODID);
+    // Create a Deferred Register to hold the data components we put on items
+    public static final DeferredRegister.DataComponents DATA_COMPONENTS = DeferredRegister.createDataComponents(Registries.DATA_COMPONENT_TYPE, MODID);
+    // Create Deferred Registers to hold our recipe types and their serializers
+    public static final DeferredRegister<RecipeType<?>> RECIPE_TYPES = DeferredRegister.create(Registries.RECIPE_TYPE, MODID);
+    public static final DeferredRegister<RecipeSerializer<?>> RECIPE_SERIALIZERS = DeferredRegister.create(Registries.RECIPE_SERIALIZER, MODID);
+    // Create a Deferred Register to hold the data attachments we put on chunks
+    public static final DeferredRegister<AttachmentType<?>> ATTACHMENT_TYPES = DeferredRegister.create(NeoForgeRegistries.ATTACHMENT_TYPES, MODID);
+
+    // The area/vein mode of the detritus tools
+    public static final DeferredHolder<DataComponentType<?>, DataComponentType<MiningMode>> MINING_MODE = DATA_COMPONENTS.registerComponentType("mining_mode",
+            builder -> builder.persistent(MiningMode.CODEC).networkSynchronized(MiningMode.STREAM_CODEC));
+
+    // Tilled flesh, the base of every flesh farm
+    public static final DeferredBlock<TilledFleshBlock> TILLED_FLESH = BLOCKS.register("tilled_flesh",
+            () -> new TilledFleshBlock(BlockBehaviour.Properties.of().mapColor(MapColor.COLOR_RED).strength(0.6F).sound(SoundType.MUD)));
+    public static final DeferredItem<BlockItem> TILLED_FLESH_ITEM = ITEMS.registerSimpleBlockItem("tilled_flesh", TILLED_FLESH);
+
+    // Detritus materials and tools
+    public static final DeferredItem<Item> DETRITUS_INGOT = ITEMS.registerSimpleItem("detritus_ingot");
+    public static final DeferredItem<Item> DETRITUS_NUGGET = ITEMS.registerSimpleItem("detritus_nugget");
+    public static final DeferredItem<Item> GRISTLE = ITEMS.registerSimpleItem("gristle");
+    // Iron level, a bit more durable and a lot more enchantable
+    public static final Tier DETRITUS_TIER = new SimpleTier(BlockTags.INCORRECT_FOR_IRON_TOOL, 375, 6.5F, 2.0F, 16, () -> Ingredient.of(DETRITUS_INGOT.get()));
+    public static final DeferredItem<SwordItem> DETRITUS_SWORD = ITEMS.register("detritus_sword",
+            () -> new SwordItem(DETRITUS_TIER, new Item.Properties().attributes(SwordItem.createAttributes(DETRITUS_TIER, 3, -2.4F))));
+    public static final DeferredItem<PickaxeItem> DETRITUS_PICKAXE = ITEMS.register("detritus_pickaxe",
+            () -> new PickaxeItem(DETRITUS_TIER, new Item.Properties().attributes(PickaxeItem.createAttributes(DETRITUS_TIER, 1.0F, -2.8F)).component(MINING_MODE.get(), MiningMode.SINGLE)));
+    public static final DeferredItem<AxeItem> DETRITUS_AXE = ITEMS.register("detritus_axe",
+            () -> new AxeItem(DETRITUS_TIER, new Item.Properties().attributes(AxeItem.createAttributes(DETRITUS_TIER, 6.0F, -3.1F)).component(MINING_MODE.get(), MiningMode.SINGLE)));
+    public static final DeferredItem<ShovelItem> DETRITUS_SHOVEL = ITEMS.register("detritus_shovel",
+            () -> new ShovelItem(DETRITUS_TIER, new Item.Properties().attributes(ShovelItem.createAttributes(DETRITUS_TIER, 1.5F, -3.0F)).component(MINING_MODE.get(), MiningMode.SINGLE)));
+    public static final DeferredItem<DetritusHoeItem> DETRITUS_HOE = ITEMS.register("detritus_hoe",
+            () -> new DetritusHoeItem(DETRITUS_TIER, new Item.Properties().attributes(DetritusHoeItem.createAttributes(DETRITUS_TIER, -2.0F, -1.0F)).component(MINING_MODE.get(), MiningMode.SINGLE)));
+
+    // The Flesh Crafting Table and the recipes only it can craft
+    public static final DeferredBlock<FleshCraftingTableBlock> FLESH_CRAFTING_TABLE = BLOCKS.register("flesh_crafting_table",
+            () -> new FleshCraftingTableBlock(BlockBehaviour.Properties.of().mapColor(MapColor.COLOR_RED).strength(2.5F).sound(SoundType.MUD)));
+    public static final DeferredItem<BlockItem> FLESH_CRAFTING_TABLE_ITEM = ITEMS.registerSimpleBlockItem("flesh_crafting_table", FLESH_CRAFTING_TABLE);
+    public static final DeferredHolder<RecipeType<?>, RecipeType<FleshCraftingRecipe>> FLESH_CRAFTING = RECIPE_TYPES.register("flesh_crafting",
+            () -> RecipeType.simple(ResourceLocation.fromNamespaceAndPath(MODID, "flesh_crafting")));
+    public static final DeferredHolder<RecipeSerializer<?>, FleshCraftingRecipeSerializer> FLESH_CRAFTING_SERIALIZER = RECIPE_SERIALIZERS.register("flesh_crafting",
+            FleshCraftingRecipeSerializer::new);
+
+    // Where the tilled flesh of a chunk is, saved with the chunk
+    public static final DeferredHolder<AttachmentType<?>, AttachmentType<FleshIndex>> FLESH_INDEX = ATTACHMENT_TYPES.register("flesh_index",
+            () -> AttachmentType.serializable(FleshIndex::new).build());
+    // The flesh spread frontier of a chunk, saved with the chunk
+    public static final DeferredHolder<AttachmentType<?>, AttachmentType<SpreadState>> SPREAD_STATE = ATTACHMENT_TYPES.register("spread_state",
+            () -> AttachmentType.serializable(SpreadState::new).build());
 
     // The constructor for the mod class is the first code that is run when your mod is loaded.
     // FML will recognize some parameter types like IEventBus or ModContainer and pass them in automatically.
@@ -49,6 +132,17 @@ public class FleshblockCompanionMod {
         // Register the commonSetup method for modloading
         modEventBus.addListener(this::commonSetup);
 
+        // Register the Deferred Registers to the mod event bus so blocks and items get registered
+        BLOCKS.register(modEventBus);
+        ITEMS.register(modEventBus);
+        DATA_COMPONENTS.register(modEventBus);
+        RECIPE_TYPES.register(modEventBus);
+        RECIPE_SERIALIZERS.register(modEventBus);
+        ATTACHMENT_TYPES.register(modEventBus);
+
+        // Register our network payloads
+        modEventBus.addListener(FleshStateSync::registerPayloads);
+
         // Register ourselves for server and other game events we are interested in.
         // Note that this is necessary if and only if we want *this* class (FleshblockCompanionMod) to respond directly to events.
         // Do not add this line if there are no @SubscribeEvent-annotated functions in this class, like onServerStarting() below.
@@ -62,12 +156,32 @@ public class FleshblockCompanionMod {
     }
 
     private void commonSetup(FMLCommonSetupEvent event) {
-
+        // Everything is registered by now, so the config can resolve its block and item names
+        Config.onRegistriesReady();
     }
 
     // Add the example block item to the building blocks tab
     private void addCreative(BuildCreativeModeTabContentsEvent event) {
-
+        if (event.getTabKey() == CreativeModeTabs.NATURAL_BLOCKS) {
+            event.accept(TILLED_FLESH_ITEM);
+        }
+        if (event.getTabKey() == CreativeModeTabs.FUNCTIONAL_BLOCKS) {
+            event.accept(FLESH_CRAFTING_TABLE_ITEM);
+        }
+        if (event.getTabKey() == CreativeModeTabs.INGREDIENTS) {
+            event.accept(DETRITUS_INGOT);
+            event.accept(DETRITUS_NUGGET);
+            event.accept(GRISTLE);
+        }
+        if (event.getTabKey() == CreativeModeTabs.TOOLS_AND_UTILITIES) {
+            event.accept(DETRITUS_SHOVEL);
+            event.accept(DETRITUS_PICKAXE);
+            event.accept(DETRITUS_AXE);
+            event.accept(DETRITUS_HOE);
+        }
+        if (event.getTabKey() == CreativeModeTabs.COMBAT) {
+            event.accept(DETRITUS_SWORD);
+        }
     }
 
     // You can use SubscribeEvent and let the Event Bus discover methods to call
@@ -75,4 +189,17 @@ public class FleshblockCompanionMod {
     public void onServerStarting(ServerStartingEvent event) {
 
     }
+
+    // Fired when the server starts and again on every /reload, which rebuilds the command tree
+    @SubscribeEvent
+    public void onRegisterCommands(RegisterCommandsEvent event) {
+        ProfileCommand.register(event.getDispatcher());
+    }
+
+    @SubscribeEvent
+    public void onServerTick(ServerTickEvent.Post event) {
+        long start = FleshProfiler.begin();
+        FleshSpreadEngine.tick(event.getServer());
+        FleshProfiler.end(Subsystem.SPREAD, start);
+    }
 }
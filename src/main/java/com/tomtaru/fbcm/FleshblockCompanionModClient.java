@@ -1,12 +1,18 @@
 package com.tomtaru.fbcm;
 
+import com.tomtaru.fbcm.client.network.FleshStateHandler;
+import com.tomtaru.fbcm.crafting.FleshRecipeMatcher;
+import com.tomtaru.fbcm.network.FleshStateSync;
+
 import net.minecraft.client.Minecraft;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.fml.common.Mod;
+import net.neoforged.fml.config.ModConfig;
 import net.neoforged.fml.event.lifecycle.FMLClientSetupEvent;
+import net.neoforged.neoforge.client.event.RecipesUpdatedEvent;
 import net.neoforged.neoforge.client.gui.ConfigurationScreen;
 import net.neoforged.neoforge.client.gui.IConfigScreenFactory;
 
@@ -20,6 +26,12 @@ public class FleshblockCompanionModClient {
         // The config screen is accessed by going to the Mods screen > clicking on your mod > clicking on config.
         // Do not forget to add translations for your config options to the en_us.json file.
         container.registerExtensionPoint(IConfigScreenFactory.class, ConfigurationScreen::new);
+
+        // Client only options, e.g. how the flesh textures are animated
+        container.registerConfig(ModConfig.Type.CLIENT, ClientConfig.SPEC);
+
+        // The payloads themselves are registered by FleshStateSync on both sides
+        FleshStateSync.setClientHandler(FleshStateHandler::apply);
     }
 
     @SubscribeEvent
@@ -28,4 +40,10 @@ public class FleshblockCompanionModClient {
         FleshblockCompanionMod.LOGGER.info("HELLO FROM CLIENT SETUP");
         FleshblockCompanionMod.LOGGER.info("MINECRAFT NAME >> {}", Minecraft.getInstance().getUser().getName());
     }
+
+    @SubscribeEvent
+    static void onRecipesUpdated(RecipesUpdatedEvent event) {
+        // The client keeps its RecipeManager and only swaps the recipes, so the index has to be told
+        FleshRecipeMatcher.client().invalidate();
+    }
 }
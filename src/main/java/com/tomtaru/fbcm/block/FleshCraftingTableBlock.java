@@ -0,0 +1,33 @@
+package com.tomtaru.fbcm.block;
+
+import com.mojang.serialization.MapCodec;
+import com.tomtaru.fbcm.crafting.FleshCraftingMenu;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.MenuProvider;
+import net.minecraft.world.SimpleMenuProvider;
+import net.minecraft.world.inventory.ContainerLevelAccess;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.CraftingTableBlock;
+import net.minecraft.world.level.block.state.BlockState;
+
+// Crafting table for the flesh crafting recipes, see FleshCraftingMenu
+public class FleshCraftingTableBlock extends CraftingTableBlock {
+    public static final MapCodec<FleshCraftingTableBlock> CODEC = simpleCodec(FleshCraftingTableBlock::new);
+    private static final Component CONTAINER_TITLE = Component.translatable("container.fbcm.flesh_crafting");
+
+    public FleshCraftingTableBlock(Properties properties) {
+        super(properties);
+    }
+
+    @Override
+    public MapCodec<? extends FleshCraftingTableBlock> codec() {
+        return CODEC;
+    }
+
+    @Override
+    protected MenuProvider getMenuProvider(BlockState state, Level level, BlockPos pos) {
+        return new SimpleMenuProvider((containerId, playerInventory, player) -> new FleshCraftingMenu(containerId, playerInventory, ContainerLevelAccess.create(level, pos)), CONTAINER_TITLE);
+    }
+}
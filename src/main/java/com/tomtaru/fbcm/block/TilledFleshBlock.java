@@ -0,0 +1,91 @@
+package com.tomtaru.fbcm.block;
+
+import com.mojang.serialization.MapCodec;
+import com.tomtaru.fbcm.farm.FleshGrowthScheduler;
+import com.tomtaru.fbcm.farm.FleshIndex;
+import com.tomtaru.fbcm.profiling.FleshProfiler;
+import com.tomtaru.fbcm.profiling.Subsystem;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.CropBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.pathfinder.PathComputationType;
+import net.minecraft.world.phys.shapes.CollisionContext;
+import net.minecraft.world.phys.shapes.VoxelShape;
+import net.neoforged.neoforge.common.util.TriState;
+
+// Flesh counterpart of farmland: 15 pixels high like the model, and shaped so that large flat farms
+// only mesh the faces that can actually be seen. The tops can also be merged, see client.model.MergedTopFaces.
+public class TilledFleshBlock extends Block {
+    public static final MapCodec<TilledFleshBlock> CODEC = simpleCodec(TilledFleshBlock::new);
+    // Same as the single element in models/block/tilled_flesh.json. It is also the occlusion shape, so the
+    // side faces (which have a cullface in the model) are culled against any full block or another 15 high block.
+    protected static final VoxelShape SHAPE = Block.box(0.0, 0.0, 0.0, 16.0, 15.0, 16.0);
+
+    public TilledFleshBlock(Properties properties) {
+        super(properties);
+    }
+
+    @Override
+    public MapCodec<? extends TilledFleshBlock> codec() {
+        return CODEC;
+    }
+
+    @Override
+    protected VoxelShape getShape(BlockState state, BlockGetter level, BlockPos pos, CollisionContext context) {
+        return SHAPE;
+    }
+
+    @Override
+    protected boolean useShapeForLightOcclusion(BlockState state) {
+        return true;
+    }
+
+    // Crops grow on tilled flesh, driven by the FleshGrowthScheduler rather than by moisture
+    @Override
+    public TriState canSustainPlant(BlockState state, BlockGetter level, BlockPos soilPosition, Direction facing, BlockState plant) {
+        return facing == Direction.UP && plant.getBlock() instanceof CropBlock ? TriState.TRUE : TriState.DEFAULT;
+    }
+
+    // Keep the chunk's FleshIndex in sync, that is all the growth scheduler looks at
+    @Override
+    protected void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean movedByPiston) {
+        super.onPlace(state, level, pos, oldState, movedByPiston);
+        if (level instanceof ServerLevel serverLevel && !oldState.is(this)) {
+            long start = FleshProfiler.begin();
+            LevelChunk chunk = serverLevel.getChunkAt(pos);
+            FleshIndex index = FleshIndex.get(chunk);
+            if (index.add(pos)) {
+                chunk.setUnsaved(true);
+                if (index.size() == 1) {
+                    FleshGrowthScheduler.schedule(serverLevel, chunk.getPos());
+                }
+            }
+            FleshProfiler.end(Subsystem.FLESH_BLOCKS, start);
+        }
+    }
+
+    @Override
+    protected void onRemove(BlockState state, Level level, BlockPos pos, BlockState newState, boolean movedByPiston) {
+        if (level instanceof ServerLevel serverLevel && !newState.is(this)) {
+            long start = FleshProfiler.begin();
+            LevelChunk chunk = serverLevel.getChunkAt(pos);
+            if (FleshIndex.get(chunk).remove(pos)) {
+                chunk.setUnsaved(true);
+            }
+            FleshProfiler.end(Subsystem.FLESH_BLOCKS, start);
+        }
+        super.onRemove(state, level, pos, newState, movedByPiston);
+    }
+
+    @Override
+    protected boolean isPathfindable(BlockState state, PathComputationType pathComputationType) {
+        return false;
+    }
+}
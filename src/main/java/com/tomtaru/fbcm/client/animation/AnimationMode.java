@@ -0,0 +1,11 @@
+package com.tomtaru.fbcm.client.animation;
+
+// How the animated fbcm block textures are advanced every client tick.
+public enum AnimationMode {
+    // Let vanilla blend and upload every interpolated frame on the fly.
+    VANILLA,
+    // Use the blended frames computed once at atlas stitch time and only upload when the frame changes.
+    PRECOMPUTED,
+    // Never advance the animation, the first frame is put back on the atlas and stays there.
+    FROZEN
+}
@@ -0,0 +1,140 @@
+package com.tomtaru.fbcm.client.animation;
+
+import com.tomtaru.fbcm.ClientConfig;
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+import com.tomtaru.fbcm.mixin.FrustumAccessor;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.Util;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.CustomizeGuiOverlayEvent;
+import net.neoforged.neoforge.client.event.RenderLevelStageEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+
+// Decides when the fbcm sprites may stop animating and counts how many atlas uploads they cost.
+// Everything in here runs on the render thread.
+@EventBusSubscriber(modid = FleshblockCompanionMod.MODID, value = Dist.CLIENT)
+public final class FleshAnimations {
+    // Sections of the client level that contain at least one fbcm block. Removed blocks are only forgotten when the
+    // chunk unloads, which can only keep an animation running a little longer than needed.
+    private static final LongSet FLESH_SECTIONS = new LongOpenHashSet();
+    private static int framesWithoutFlesh;
+
+    private static int uploads;
+    private static int uploadsPerSecond;
+    private static long secondStart;
+
+    private FleshAnimations() {
+    }
+
+    public static boolean isPaused() {
+        int pauseFrames = ClientConfig.ANIMATION_PAUSE_FRAMES.get();
+        return pauseFrames > 0 && framesWithoutFlesh >= pauseFrames;
+    }
+
+    public static void recordUpload() {
+        uploads++;
+    }
+
+    public static void onBlockChanged(BlockPos pos, BlockState state) {
+        if (isFleshBlock(state)) {
+            FLESH_SECTIONS.add(SectionPos.asLong(pos));
+        }
+    }
+
+    private static boolean isFleshBlock(BlockState state) {
+        return BuiltInRegistries.BLOCK.getKey(state.getBlock()).getNamespace().equals(FleshblockCompanionMod.MODID);
+    }
+
+    @SubscribeEvent
+    static void onChunkLoad(ChunkEvent.Load event) {
+        if (!event.getLevel().isClientSide()) {
+            return;
+        }
+
+        ChunkAccess chunk = event.getChunk();
+        LevelChunkSection[] sections = chunk.getSections();
+        for (int i = 0; i < sections.length; i++) {
+            // maybeHas only looks at the palette, which rules out most sections cheaply. It is not exact though:
+            // palettes keep the states of removed blocks, and a global palette says yes to everything. Only the
+            // sections that pass it are counted block by block.
+            if (!sections[i].hasOnlyAir() && sections[i].maybeHas(FleshAnimations::isFleshBlock) && containsFlesh(sections[i])) {
+                FLESH_SECTIONS.add(SectionPos.asLong(chunk.getPos().x, chunk.getSectionYFromSectionIndex(i), chunk.getPos().z));
+            }
+        }
+    }
+
+    private static boolean containsFlesh(LevelChunkSection section) {
+        boolean[] found = new boolean[1];
+        section.getStates().count((state, count) -> found[0] |= isFleshBlock(state));
+        return found[0];
+    }
+
+    @SubscribeEvent
+    static void onChunkUnload(ChunkEvent.Unload event) {
+        if (!event.getLevel().isClientSide()) {
+            return;
+        }
+
+        ChunkPos pos = event.getChunk().getPos();
+        FLESH_SECTIONS.removeIf(section -> SectionPos.x(section) == pos.x && SectionPos.z(section) == pos.z);
+    }
+
+    @SubscribeEvent
+    static void onLevelUnload(LevelEvent.Unload event) {
+        if (event.getLevel().isClientSide()) {
+            FLESH_SECTIONS.clear();
+        }
+    }
+
+    @SubscribeEvent
+    static void onRenderLevelStage(RenderLevelStageEvent event) {
+        // AFTER_SKY fires exactly once per rendered frame.
+        if (event.getStage() != RenderLevelStageEvent.Stage.AFTER_SKY) {
+            return;
+        }
+
+        framesWithoutFlesh = anySectionVisible(event.getFrustum()) ? 0 : framesWithoutFlesh + 1;
+
+        long now = Util.getMillis();
+        if (now - secondStart >= 1000L) {
+            uploadsPerSecond = uploads;
+            uploads = 0;
+            secondStart = now;
+        }
+    }
+
+    private static boolean anySectionVisible(Frustum frustum) {
+        FrustumAccessor accessor = (FrustumAccessor) frustum;
+        LongIterator iterator = FLESH_SECTIONS.iterator();
+        while (iterator.hasNext()) {
+            long section = iterator.nextLong();
+            int x = SectionPos.sectionToBlockCoord(SectionPos.x(section));
+            int y = SectionPos.sectionToBlockCoord(SectionPos.y(section));
+            int z = SectionPos.sectionToBlockCoord(SectionPos.z(section));
+            if (accessor.fbcm$cubeInFrustum(x, y, z, x + 16, y + 16, z + 16)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SubscribeEvent
+    static void onDebugText(CustomizeGuiOverlayEvent.DebugText event) {
+        event.getRight().add("");
+        event.getRight().add(String.format("fbcm animations: %s%s, %d uploads/s", ClientConfig.ANIMATION_MODE.get(), isPaused() ? " (paused)" : "", uploadsPerSecond));
+    }
+}
@@ -0,0 +1,98 @@
+package com.tomtaru.fbcm.client.animation;
+
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.tomtaru.fbcm.ClientConfig;
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+import com.tomtaru.fbcm.mixin.SpriteContentsAccessor;
+
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.metadata.animation.AnimationMetadataSection;
+
+// Replaces the atlas ticker of every animated fbcm sprite and picks the update strategy from the client config each tick,
+// so switching modes does not need a resource reload.
+public final class FleshSpriteTicker implements TextureAtlasSprite.Ticker {
+    private final TextureAtlasSprite sprite;
+    private final TextureAtlasSprite.Ticker vanilla;
+    @Nullable
+    private final PrecomputedAnimation precomputed;
+    private int tick;
+    private int uploaded;
+    private AnimationMode lastMode = AnimationMode.VANILLA;
+
+    private FleshSpriteTicker(TextureAtlasSprite sprite, TextureAtlasSprite.Ticker vanilla, @Nullable PrecomputedAnimation precomputed) {
+        this.sprite = sprite;
+        this.vanilla = vanilla;
+        this.precomputed = precomputed;
+    }
+
+    public static FleshSpriteTicker create(TextureAtlasSprite sprite, TextureAtlasSprite.Ticker vanilla) {
+        PrecomputedAnimation precomputed = null;
+        Optional<AnimationMetadataSection> metadata = sprite.contents().metadata().getSection(AnimationMetadataSection.SERIALIZER);
+        if (metadata.isPresent()) {
+            precomputed = PrecomputedAnimation.build(sprite.contents(), metadata.get());
+        }
+        if (precomputed == null) {
+            FleshblockCompanionMod.LOGGER.warn("Could not precompute the animation of {}, it will always animate like vanilla", sprite.contents().name());
+        }
+        return new FleshSpriteTicker(sprite, vanilla, precomputed);
+    }
+
+    @Override
+    public void tickAndUpload() {
+        AnimationMode mode = this.precomputed == null ? AnimationMode.VANILLA : ClientConfig.ANIMATION_MODE.get();
+        if (mode != this.lastMode) {
+            // Whatever the previous mode left on the atlas is unknown to us, force the next upload.
+            this.uploaded = -1;
+            this.lastMode = mode;
+        }
+
+        switch (mode) {
+            case VANILLA -> this.vanilla.tickAndUpload();
+            case PRECOMPUTED -> {
+                if (!FleshAnimations.isPaused()) {
+                    this.tickPrecomputed();
+                }
+            }
+            case FROZEN -> {
+                // Back to the first frame, whatever the previous mode was showing
+                this.tick = 0;
+                this.show(this.precomputed.imageAt(0));
+            }
+        }
+    }
+
+    private void tickPrecomputed() {
+        this.tick = (this.tick + 1) % this.precomputed.length();
+        this.show(this.precomputed.imageAt(this.tick));
+    }
+
+    // Uploads the image unless it is already on the atlas
+    private void show(int image) {
+        if (image == this.uploaded) {
+            return;
+        }
+
+        this.uploaded = image;
+        if (!RenderSystem.isOnRenderThread()) {
+            RenderSystem.recordRenderCall(() -> this.upload(image));
+        } else {
+            this.upload(image);
+        }
+    }
+
+    private void upload(int image) {
+        ((SpriteContentsAccessor) this.sprite.contents()).fbcm$upload(this.sprite.getX(), this.sprite.getY(), 0, 0, this.precomputed.image(image));
+    }
+
+    @Override
+    public void close() {
+        this.vanilla.close();
+        if (this.precomputed != null) {
+            this.precomputed.close();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.tomtaru.fbcm.client.animation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import com.tomtaru.fbcm.mixin.SpriteContentsAccessor;
+
+import net.minecraft.client.renderer.texture.SpriteContents;
+import net.minecraft.client.resources.metadata.animation.AnimationMetadataSection;
+
+// Every tick of an animation resolved to an already blended image, built once when the atlas is stitched.
+// Identical images (repeated frames, or blends that round to the same pixels) are only stored and uploaded once.
+final class PrecomputedAnimation implements AutoCloseable {
+    // Keeps a pathological animation from eating all our memory, those simply stay on the vanilla path.
+    private static final int MAX_TICKS = 4096;
+
+    // Unique images, one NativeImage per mip level each.
+    private final NativeImage[][] images;
+    // Index into images for every tick of the animation.
+    private final int[] timeline;
+
+    private PrecomputedAnimation(NativeImage[][] images, int[] timeline) {
+        this.images = images;
+        this.timeline = timeline;
+    }
+
+    int length() {
+        return this.timeline.length;
+    }
+
+    int imageAt(int tick) {
+        return this.timeline[tick];
+    }
+
+    NativeImage[] image(int index) {
+        return this.images[index];
+    }
+
+    @Nullable
+    static PrecomputedAnimation build(SpriteContents contents, AnimationMetadataSection metadata) {
+        NativeImage[] source = ((SpriteContentsAccessor) contents).fbcm$getByMipLevel();
+        int width = contents.width();
+        int height = contents.height();
+        int rowSize = source[0].getWidth() / width;
+        int frameCount = rowSize * (source[0].getHeight() / height);
+
+        // Same rules as SpriteContents.createAnimatedTexture: an empty frame list plays the whole strip.
+        List<int[]> frames = new ArrayList<>();
+        metadata.forEachFrame((index, time) -> frames.add(new int[] { index, time == -1 ? metadata.getDefaultFrameTime() : time }));
+        if (frames.isEmpty()) {
+            for (int i = 0; i < frameCount; i++) {
+                frames.add(new int[] { i, metadata.getDefaultFrameTime() });
+            }
+        }
+
+        int length = 0;
+        for (int[] frame : frames) {
+            if (frame[0] < 0 || frame[0] >= frameCount || frame[1] < 1) {
+                return null;
+            }
+            length += frame[1];
+        }
+        if (length > MAX_TICKS) {
+            return null;
+        }
+
+        Map<FrameKey, Integer> indices = new HashMap<>();
+        List<int[]> pixels = new ArrayList<>();
+        int[] timeline = new int[length];
+        int tick = 0;
+        for (int f = 0; f < frames.size(); f++) {
+            int current = frames.get(f)[0];
+            int time = frames.get(f)[1];
+            int next = frames.get((f + 1) % frames.size())[0];
+            for (int subFrame = 0; subFrame < time; subFrame++) {
+                int[] image;
+                if (subFrame == 0 || !metadata.isInterpolatedFrames() || current == next) {
+                    image = blend(source, width, height, rowSize, current, current, 1.0);
+                } else {
+                    image = blend(source, width, height, rowSize, current, next, 1.0 - (double) subFrame / (double) time);
+                }
+                Integer index = indices.get(new FrameKey(image));
+                if (index == null) {
+                    index = pixels.size();
+                    indices.put(new FrameKey(image), index);
+                    pixels.add(image);
+                }
+                timeline[tick++] = index;
+            }
+        }
+
+        NativeImage[][] images = new NativeImage[pixels.size()][];
+        for (int i = 0; i < images.length; i++) {
+            images[i] = toImages(pixels.get(i), source.length, width, height);
+        }
+        return new PrecomputedAnimation(images, timeline);
+    }
+
+    // Blends two frames of the strip for all mip levels into one flat array, the same way InterpolationData does.
+    private static int[] blend(NativeImage[] source, int width, int height, int rowSize, int current, int next, double delta) {
+        int size = 0;
+        for (int level = 0; level < source.length; level++) {
+            size += (width >> level) * (height >> level);
+        }
+
+        int[] result = new int[size];
+        int offset = 0;
+        for (int level = 0; level < source.length; level++) {
+            int levelWidth = width >> level;
+            int levelHeight = height >> level;
+            int currentX = (current % rowSize) * levelWidth;
+            int currentY = (current / rowSize) * levelHeight;
+            int nextX = (next % rowSize) * levelWidth;
+            int nextY = (next / rowSize) * levelHeight;
+            for (int y = 0; y < levelHeight; y++) {
+                for (int x = 0; x < levelWidth; x++) {
+                    int from = source[level].getPixelRGBA(currentX + x, currentY + y);
+                    if (current == next) {
+                        result[offset++] = from;
+                        continue;
+                    }
+                    int to = source[level].getPixelRGBA(nextX + x, nextY + y);
+                    int red = mix(delta, from >> 16 & 255, to >> 16 & 255);
+                    int green = mix(delta, from >> 8 & 255, to >> 8 & 255);
+                    int blue = mix(delta, from & 255, to & 255);
+                    result[offset++] = from & 0xFF000000 | red << 16 | green << 8 | blue;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int mix(double delta, int from, int to) {
+        return (int) (delta * (double) from + (1.0 - delta) * (double) to);
+    }
+
+    private static NativeImage[] toImages(int[] pixels, int levels, int width, int height) {
+        NativeImage[] images = new NativeImage[levels];
+        int offset = 0;
+        for (int level = 0; level < levels; level++) {
+            int levelWidth = width >> level;
+            int levelHeight = height >> level;
+            // Small or non power of two frames have empty high mip levels. NativeImage needs at least one pixel,
+            // and SpriteContents.upload copies width >> level pixels, so nothing of the placeholder reaches the atlas.
+            images[level] = new NativeImage(Math.max(1, levelWidth), Math.max(1, levelHeight), false);
+            for (int y = 0; y < levelHeight; y++) {
+                for (int x = 0; x < levelWidth; x++) {
+                    images[level].setPixelRGBA(x, y, pixels[offset++]);
+                }
+            }
+        }
+        return images;
+    }
+
+    @Override
+    public void close() {
+        for (NativeImage[] image : this.images) {
+            for (NativeImage level : image) {
+                level.close();
+            }
+        }
+    }
+
+    private record FrameKey(int[] pixels) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof FrameKey key && Arrays.equals(this.pixels, key.pixels);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(this.pixels);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.tomtaru.fbcm.client.model;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.tomtaru.fbcm.ClientConfig;
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.texture.TextureAtlas;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.fml.config.ModConfig;
+import net.neoforged.fml.event.config.ModConfigEvent;
+import net.neoforged.neoforge.client.event.AddSectionGeometryEvent;
+
+// The merged top face mode of tilled flesh, see ClientConfig.MERGED_TOP_FACES.
+// Every compiled section that contains tilled flesh gets an extra renderer. It greedily merges the top faces of each
+// layer into rectangles of evenly lit blocks and emits one quad per rectangle, with the top texture stretched over
+// it. TilledFleshModel leaves out the per block top faces at the same time.
+@EventBusSubscriber(modid = FleshblockCompanionMod.MODID, value = Dist.CLIENT)
+public final class MergedTopFaces {
+    private static final ResourceLocation TOP_TEXTURE = ResourceLocation.fromNamespaceAndPath(FleshblockCompanionMod.MODID, "block/flesh_tilled_top");
+    // The top face of the 15 high block
+    private static final float TOP = 15.0F / 16.0F;
+
+    // Read from the section compile threads, only changed together with a rebuild of every section
+    private static volatile boolean enabled;
+    private static volatile int maxSize = 16;
+
+    private MergedTopFaces() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    @SubscribeEvent
+    static void onConfigLoad(ModConfigEvent.Loading event) {
+        if (event.getConfig().getType() == ModConfig.Type.CLIENT) {
+            enabled = ClientConfig.MERGED_TOP_FACES.get();
+            maxSize = ClientConfig.MERGED_TOP_FACE_SIZE.get();
+        }
+    }
+
+    @SubscribeEvent
+    static void onConfigReload(ModConfigEvent.Reloading event) {
+        if (event.getConfig().getType() != ModConfig.Type.CLIENT) {
+            return;
+        }
+
+        boolean newEnabled = ClientConfig.MERGED_TOP_FACES.get();
+        int newMaxSize = ClientConfig.MERGED_TOP_FACE_SIZE.get();
+        if (newEnabled != enabled || newMaxSize != maxSize) {
+            // The model and the section renderer have to switch together, so every section is meshed again
+            Minecraft minecraft = Minecraft.getInstance();
+            minecraft.execute(() -> {
+                enabled = newEnabled;
+                maxSize = newMaxSize;
+                if (minecraft.level != null) {
+                    minecraft.levelRenderer.allChanged();
+                }
+            });
+        }
+    }
+
+    @SubscribeEvent
+    static void onAddSectionGeometry(AddSectionGeometryEvent event) {
+        if (!enabled) {
+            return;
+        }
+
+        // Only the palette is looked at here, on the main thread. The renderer itself runs on a compile thread.
+        BlockPos origin = event.getSectionOrigin().immutable();
+        ChunkAccess chunk = event.getLevel().getChunk(SectionPos.blockToSectionCoord(origin.getX()), SectionPos.blockToSectionCoord(origin.getZ()));
+        int sectionIndex = chunk.getSectionIndex(origin.getY());
+        if (sectionIndex < 0 || sectionIndex >= chunk.getSectionsCount()) {
+            return;
+        }
+        LevelChunkSection section = chunk.getSection(sectionIndex);
+        if (section.hasOnlyAir() || !section.maybeHas(state -> state.is(FleshblockCompanionMod.TILLED_FLESH.get()))) {
+            return;
+        }
+
+        int size = maxSize;
+        event.addRenderer(context -> render(context.getRegion(), origin, size, context.getOrCreateChunkBuffer(RenderType.solid()), context.getPoseStack().last()));
+    }
+
+    private static void render(BlockAndTintGetter region, BlockPos origin, int size, VertexConsumer consumer, PoseStack.Pose pose) {
+        TextureAtlasSprite sprite = Minecraft.getInstance().getModelManager().getAtlas(TextureAtlas.LOCATION_BLOCKS).getSprite(TOP_TEXTURE);
+        int[] keys = new int[TopFaceMesher.SIZE * TopFaceMesher.SIZE];
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+        for (int y = 0; y < TopFaceMesher.SIZE; y++) {
+            boolean any = false;
+            for (int z = 0; z < TopFaceMesher.SIZE; z++) {
+                for (int x = 0; x < TopFaceMesher.SIZE; x++) {
+                    pos.set(origin.getX() + x, origin.getY() + y, origin.getZ() + z);
+                    if (region.getBlockState(pos).is(FleshblockCompanionMod.TILLED_FLESH.get())) {
+                        // The packed light above the block, only evenly lit blocks are merged
+                        keys[x + z * TopFaceMesher.SIZE] = LevelRenderer.getLightColor(region, above.setWithOffset(pos, 0, 1, 0));
+                        any = true;
+                    } else {
+                        keys[x + z * TopFaceMesher.SIZE] = -1;
+                    }
+                }
+            }
+
+            if (any) {
+                float top = y + TOP;
+                TopFaceMesher.mesh(keys, size, (x, z, width, depth, light) -> {
+                    // Same corner order as the up face of a block model
+                    vertex(consumer, pose, x, top, z, sprite.getU0(), sprite.getV0(), light);
+                    vertex(consumer, pose, x, top, z + depth, sprite.getU0(), sprite.getV1(), light);
+                    vertex(consumer, pose, x + width, top, z + depth, sprite.getU1(), sprite.getV1(), light);
+                    vertex(consumer, pose, x + width, top, z, sprite.getU1(), sprite.getV0(), light);
+                });
+            }
+        }
+    }
+
+    private static void vertex(VertexConsumer consumer, PoseStack.Pose pose, float x, float y, float z, float u, float v, int light) {
+        consumer.addVertex(pose, x, y, z).setColor(-1).setUv(u, v).setLight(light).setNormal(pose, 0.0F, 1.0F, 0.0F);
+    }
+}
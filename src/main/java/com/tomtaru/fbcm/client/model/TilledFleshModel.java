@@ -0,0 +1,57 @@
+package com.tomtaru.fbcm.client.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.block.BlockModelShaper;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ModelEvent;
+import net.neoforged.neoforge.client.model.BakedModelWrapper;
+import net.neoforged.neoforge.client.model.data.ModelData;
+
+// The baked tilled flesh block model. The side and bottom faces are the JSON model's, culled through their cullface
+// against the block's 15 high occlusion shape. The top face is left out while MergedTopFaces draws the tops of the
+// whole section as merged quads instead, which also drops the breaking overlay on the top face in that mode.
+@EventBusSubscriber(modid = FleshblockCompanionMod.MODID, value = Dist.CLIENT)
+public class TilledFleshModel extends BakedModelWrapper<BakedModel> {
+    // The unculled quads without the top face, the model has no variants so they are the same for every call
+    private final List<BakedQuad> withoutTop;
+
+    public TilledFleshModel(BakedModel original) {
+        super(original);
+        List<BakedQuad> withoutTop = new ArrayList<>();
+        for (BakedQuad quad : original.getQuads(null, null, RandomSource.create(42L), ModelData.EMPTY, null)) {
+            if (quad.getDirection() != Direction.UP) {
+                withoutTop.add(quad);
+            }
+        }
+        this.withoutTop = List.copyOf(withoutTop);
+    }
+
+    @Override
+    public List<BakedQuad> getQuads(@Nullable BlockState state, @Nullable Direction side, RandomSource rand, ModelData extraData, @Nullable RenderType renderType) {
+        if (side == null && state != null && MergedTopFaces.isEnabled()) {
+            return this.withoutTop;
+        }
+        return super.getQuads(state, side, rand, extraData, renderType);
+    }
+
+    @SubscribeEvent
+    static void onModifyBakingResult(ModelEvent.ModifyBakingResult event) {
+        for (BlockState state : FleshblockCompanionMod.TILLED_FLESH.get().getStateDefinition().getPossibleStates()) {
+            event.getModels().computeIfPresent(BlockModelShaper.stateToModelLocation(state), (location, model) -> new TilledFleshModel(model));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.tomtaru.fbcm.client.model;
+
+// Greedy meshing of one 16 x 16 layer of a section into rectangles. Plain data in and out, no client classes, so
+// the GameTests can count the quads of a field on a dedicated server.
+public final class TopFaceMesher {
+    public static final int SIZE = 16;
+
+    private TopFaceMesher() {
+    }
+
+    // keys holds one entry per cell, index x + z * 16. Cells with the same key may share a rectangle, a negative
+    // key means the cell has no face. Rectangles are at most maxSize wide and deep, and are handed to out row by
+    // row from the low corner. Returns how many there were.
+    public static int mesh(int[] keys, int maxSize, Rectangles out) {
+        boolean[] done = new boolean[SIZE * SIZE];
+        int count = 0;
+        for (int z = 0; z < SIZE; z++) {
+            for (int x = 0; x < SIZE; x++) {
+                int index = x + z * SIZE;
+                int key = keys[index];
+                if (key < 0 || done[index]) {
+                    continue;
+                }
+
+                int width = 1;
+                while (width < maxSize && x + width < SIZE && !done[index + width] && keys[index + width] == key) {
+                    width++;
+                }
+                int depth = 1;
+                grow:
+                while (depth < maxSize && z + depth < SIZE) {
+                    for (int dx = 0; dx < width; dx++) {
+                        int next = index + dx + depth * SIZE;
+                        if (done[next] || keys[next] != key) {
+                            break grow;
+                        }
+                    }
+                    depth++;
+                }
+
+                for (int dz = 0; dz < depth; dz++) {
+                    for (int dx = 0; dx < width; dx++) {
+                        done[index + dx + dz * SIZE] = true;
+                    }
+                }
+                out.accept(x, z, width, depth, key);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @FunctionalInterface
+    public interface Rectangles {
+        void accept(int x, int z, int width, int depth, int key);
+    }
+}
@@ -0,0 +1,58 @@
+package com.tomtaru.fbcm.client.network;
+
+import com.tomtaru.fbcm.network.FleshStateDelta;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.block.CropBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+// The client side of FleshStateSync, registered by FleshblockCompanionModClient. Writes the synced crop ages
+// straight into the chunk section. Going through ClientLevel.setBlock would mark up to 8 render sections dirty per
+// block, here every delta marks only its own section, and only if something changed. Nothing is kept between
+// deltas, the chunk section is the only copy. Runs on the main thread.
+public final class FleshStateHandler {
+    private FleshStateHandler() {
+    }
+
+    public static void apply(FleshStateDelta delta, IPayloadContext context) {
+        ClientLevel level = Minecraft.getInstance().level;
+        if (level == null) {
+            return;
+        }
+        int sectionX = SectionPos.x(delta.section());
+        int sectionY = SectionPos.y(delta.section());
+        int sectionZ = SectionPos.z(delta.section());
+        LevelChunk chunk = level.getChunkSource().getChunk(sectionX, sectionZ, false);
+        int sectionIndex = level.getSectionIndexFromSectionY(sectionY);
+        if (chunk == null || sectionIndex < 0 || sectionIndex >= level.getSectionsCount()) {
+            return;
+        }
+
+        LevelChunkSection section = chunk.getSection(sectionIndex);
+        boolean changed = false;
+        for (int i = 0; i < delta.positions().length; i++) {
+            short position = delta.positions()[i];
+            byte value = delta.values()[i];
+            int x = SectionPos.sectionRelativeX(position);
+            int y = SectionPos.sectionRelativeY(position);
+            int z = SectionPos.sectionRelativeZ(position);
+            BlockState state = section.getBlockState(x, y, z);
+            // Anything else means the block changed since, the vanilla update for that is on its way
+            if (state.getBlock() instanceof CropBlock crop && value <= crop.getMaxAge()) {
+                BlockState grown = crop.getStateForAge(value);
+                if (grown != state) {
+                    section.setBlockState(x, y, z, grown);
+                    changed = true;
+                }
+            }
+        }
+        if (changed) {
+            Minecraft.getInstance().levelRenderer.setSectionDirty(sectionX, sectionY, sectionZ);
+        }
+    }
+}
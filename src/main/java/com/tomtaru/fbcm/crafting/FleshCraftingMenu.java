@@ -0,0 +1,164 @@
+package com.tomtaru.fbcm.crafting;
+
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import net.minecraft.core.NonNullList;
+import net.minecraft.network.protocol.game.ClientboundContainerSetSlotPacket;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Container;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.inventory.ContainerLevelAccess;
+import net.minecraft.world.inventory.CraftingContainer;
+import net.minecraft.world.inventory.CraftingMenu;
+import net.minecraft.world.inventory.ResultContainer;
+import net.minecraft.world.inventory.ResultSlot;
+import net.minecraft.world.inventory.Slot;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.CraftingInput;
+import net.minecraft.world.item.crafting.CraftingRecipe;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.common.CommonHooks;
+
+// The vanilla crafting screen and slots, but the result comes from the flesh crafting recipes.
+// The grid is only matched again when its contents really changed, not on every slot notification.
+public class FleshCraftingMenu extends CraftingMenu {
+    private final ContainerLevelAccess access;
+    private final Player player;
+    private final CraftingContainer craftSlots;
+    private final ResultContainer resultSlots;
+    // The grid the current result was matched for
+    @Nullable
+    private FleshRecipeMatcher.GridKey lastGrid;
+    // The recipe book fills the grid slot by slot, it is matched once at the end like in CraftingMenu
+    private boolean placingRecipe;
+
+    public FleshCraftingMenu(int containerId, Inventory playerInventory, ContainerLevelAccess access) {
+        super(containerId, playerInventory, access);
+        this.access = access;
+        this.player = playerInventory.player;
+        // Slot 0 is the result, slots 1 to 9 the grid, see CraftingMenu
+        this.resultSlots = (ResultContainer) this.getSlot(0).container;
+        this.craftSlots = (CraftingContainer) this.getSlot(1).container;
+        // Same position as the vanilla result slot, quickMoveStack takes it from this.slots as well
+        Slot resultSlot = new FleshResultSlot(this.player, this.craftSlots, this.resultSlots, 0, 124, 35);
+        resultSlot.index = 0;
+        this.slots.set(0, resultSlot);
+    }
+
+    @Override
+    public void slotsChanged(Container container) {
+        this.access.execute((level, pos) -> {
+            if (this.placingRecipe || level.isClientSide || !(this.player instanceof ServerPlayer serverPlayer)) {
+                return;
+            }
+
+            CraftingInput input = this.craftSlots.asCraftInput();
+            FleshRecipeMatcher.GridKey grid = FleshRecipeMatcher.GridKey.of(input);
+            // Taking the result empties the slot while the grid may still hold the same items, assemble it again then
+            if (grid.equals(this.lastGrid) && !this.resultSlots.getItem(0).isEmpty()) {
+                return;
+            }
+            this.lastGrid = grid;
+
+            ItemStack result = ItemStack.EMPTY;
+            Optional<RecipeHolder<FleshCraftingRecipe>> recipe = FleshRecipeMatcher.get(level).find(input, level);
+            if (recipe.isPresent() && this.resultSlots.setRecipeUsed(level, serverPlayer, recipe.get())) {
+                ItemStack assembled = recipe.get().value().assemble(input, level.registryAccess());
+                if (assembled.isItemEnabled(level.enabledFeatures())) {
+                    result = assembled;
+                }
+            }
+
+            this.resultSlots.setItem(0, result);
+            this.setRemoteSlot(0, result);
+            serverPlayer.connection.send(new ClientboundContainerSetSlotPacket(this.containerId, this.incrementStateId(), 0, result));
+        });
+    }
+
+    @Override
+    public void beginPlacingRecipe() {
+        super.beginPlacingRecipe();
+        this.placingRecipe = true;
+    }
+
+    // The recipe book only knows vanilla recipes. CraftingMenu matches the grid against those when placing ends,
+    // so the grid is matched again right after and the vanilla result never stays in this table.
+    @Override
+    public void finishPlacingRecipe(RecipeHolder<CraftingRecipe> recipe) {
+        super.finishPlacingRecipe(recipe);
+        this.placingRecipe = false;
+        this.lastGrid = null;
+        this.slotsChanged(this.craftSlots);
+    }
+
+    @Override
+    public boolean stillValid(Player player) {
+        return stillValid(this.access, player, FleshblockCompanionMod.FLESH_CRAFTING_TABLE.get());
+    }
+
+    // ResultSlot asks the RecipeManager for the remaining items of a vanilla crafting recipe. There is none for a
+    // flesh recipe, and its fallback hands back the grid's own stacks, which onTake then grows onto themselves.
+    // This slot takes the remaining items from the flesh recipe instead.
+    private static final class FleshResultSlot extends ResultSlot {
+        private final Player player;
+        private final CraftingContainer craftSlots;
+
+        FleshResultSlot(Player player, CraftingContainer craftSlots, ResultContainer container, int slot, int x, int y) {
+            super(player, craftSlots, container, slot, x, y);
+            this.player = player;
+            this.craftSlots = craftSlots;
+        }
+
+        @Override
+        public void onTake(Player player, ItemStack stack) {
+            this.checkTakeAchievements(stack);
+            CraftingInput.Positioned positioned = this.craftSlots.asPositionedCraftInput();
+            CraftingInput input = positioned.input();
+            NonNullList<ItemStack> remaining = remainingItems(player, input);
+            for (int y = 0; y < input.height(); y++) {
+                for (int x = 0; x < input.width(); x++) {
+                    int slot = x + positioned.left() + (y + positioned.top()) * this.craftSlots.getWidth();
+                    ItemStack current = this.craftSlots.getItem(slot);
+                    ItemStack remainder = remaining.get(x + y * input.width());
+                    if (!current.isEmpty()) {
+                        this.craftSlots.removeItem(slot, 1);
+                        current = this.craftSlots.getItem(slot);
+                    }
+                    if (remainder.isEmpty()) {
+                        continue;
+                    }
+
+                    if (current.isEmpty()) {
+                        this.craftSlots.setItem(slot, remainder);
+                    } else if (ItemStack.isSameItemSameComponents(current, remainder)) {
+                        remainder.grow(current.getCount());
+                        this.craftSlots.setItem(slot, remainder);
+                    } else if (!this.player.getInventory().add(remainder)) {
+                        this.player.drop(remainder, false);
+                    }
+                }
+            }
+        }
+
+        // Fresh stacks, never the ones in the grid
+        private static NonNullList<ItemStack> remainingItems(Player player, CraftingInput input) {
+            Level level = player.level();
+            CommonHooks.setCraftingPlayer(player);
+            try {
+                Optional<RecipeHolder<FleshCraftingRecipe>> recipe = FleshRecipeMatcher.get(level).find(input, level);
+                if (recipe.isPresent()) {
+                    return recipe.get().value().getRemainingItems(input);
+                }
+            } finally {
+                CommonHooks.setCraftingPlayer(null);
+            }
+            return NonNullList.withSize(input.size(), ItemStack.EMPTY);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.tomtaru.fbcm.crafting;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import net.minecraft.core.NonNullList;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.CraftingBookCategory;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeSerializer;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.item.crafting.ShapelessRecipe;
+
+// A shapeless recipe that can only be crafted in the Flesh Crafting Table.
+// Matching and assembling are vanilla's, only the type and serializer differ.
+public class FleshCraftingRecipe extends ShapelessRecipe {
+    final ItemStack result;
+
+    public FleshCraftingRecipe(String group, CraftingBookCategory category, ItemStack result, NonNullList<Ingredient> ingredients) {
+        super(group, category, result, ingredients);
+        this.result = result;
+    }
+
+    @Override
+    public RecipeType<?> getType() {
+        return FleshblockCompanionMod.FLESH_CRAFTING.get();
+    }
+
+    @Override
+    public RecipeSerializer<?> getSerializer() {
+        return FleshblockCompanionMod.FLESH_CRAFTING_SERIALIZER.get();
+    }
+}
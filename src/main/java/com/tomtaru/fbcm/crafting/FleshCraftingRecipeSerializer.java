@@ -0,0 +1,51 @@
+package com.tomtaru.fbcm.crafting;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.DataResult;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+import net.minecraft.core.NonNullList;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.CraftingBookCategory;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeSerializer;
+import net.minecraft.world.item.crafting.ShapelessRecipe;
+
+// Same json layout as minecraft:crafting_shapeless
+public class FleshCraftingRecipeSerializer implements RecipeSerializer<FleshCraftingRecipe> {
+    private static final MapCodec<FleshCraftingRecipe> CODEC = RecordCodecBuilder.mapCodec(instance -> instance.group(
+            Codec.STRING.optionalFieldOf("group", "").forGetter(ShapelessRecipe::getGroup),
+            CraftingBookCategory.CODEC.fieldOf("category").orElse(CraftingBookCategory.MISC).forGetter(ShapelessRecipe::category),
+            ItemStack.STRICT_CODEC.fieldOf("result").forGetter(recipe -> recipe.result),
+            Ingredient.CODEC_NONEMPTY.listOf().fieldOf("ingredients").flatXmap(ingredients -> {
+                if (ingredients.isEmpty()) {
+                    return DataResult.error(() -> "No ingredients for flesh crafting recipe");
+                }
+                if (ingredients.size() > 9) {
+                    return DataResult.error(() -> "Too many ingredients for flesh crafting recipe. The maximum is: 9");
+                }
+                return DataResult.success(NonNullList.of(Ingredient.EMPTY, ingredients.toArray(Ingredient[]::new)));
+            }, DataResult::success).forGetter(ShapelessRecipe::getIngredients)
+    ).apply(instance, FleshCraftingRecipe::new));
+
+    private static final StreamCodec<RegistryFriendlyByteBuf, FleshCraftingRecipe> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.STRING_UTF8, ShapelessRecipe::getGroup,
+            CraftingBookCategory.STREAM_CODEC, ShapelessRecipe::category,
+            ItemStack.STREAM_CODEC, recipe -> recipe.result,
+            Ingredient.CONTENTS_STREAM_CODEC.apply(ByteBufCodecs.collection(NonNullList::createWithCapacity)), ShapelessRecipe::getIngredients,
+            FleshCraftingRecipe::new);
+
+    @Override
+    public MapCodec<FleshCraftingRecipe> codec() {
+        return CODEC;
+    }
+
+    @Override
+    public StreamCodec<RegistryFriendlyByteBuf, FleshCraftingRecipe> streamCodec() {
+        return STREAM_CODEC;
+    }
+}
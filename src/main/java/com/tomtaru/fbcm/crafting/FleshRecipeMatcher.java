@@ -0,0 +1,238 @@
+package com.tomtaru.fbcm.crafting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+import com.tomtaru.fbcm.profiling.FleshProfiler;
+import com.tomtaru.fbcm.profiling.Subsystem;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.CraftingInput;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.RecipeHolder;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+
+// Finds the flesh crafting recipe for a grid without scanning every recipe.
+// Recipes are indexed by the sorted set of item ids that can satisfy them, so a lookup only tests the recipes that
+// use exactly the items in the grid. Recipes whose ingredients accept too many items to enumerate are kept in a
+// small list that is still scanned. On top of that the last few grids are cached with their result.
+// The index is rebuilt lazily after recipes or tags change. There is one matcher per logical side, each only used
+// from its own thread.
+@EventBusSubscriber(modid = FleshblockCompanionMod.MODID)
+public final class FleshRecipeMatcher {
+    private static final FleshRecipeMatcher SERVER = new FleshRecipeMatcher();
+    private static final FleshRecipeMatcher CLIENT = new FleshRecipeMatcher();
+    // Upper bound of item sets a single recipe may add to the index
+    private static final int MAX_COMBINATIONS = 256;
+    private static final int CACHE_SIZE = 64;
+
+    private volatile boolean dirty = true;
+    @Nullable
+    private RecipeManager builtFrom;
+    private Map<ItemSetKey, List<RecipeHolder<FleshCraftingRecipe>>> index = Map.of();
+    private List<RecipeHolder<FleshCraftingRecipe>> unindexed = List.of();
+    private final Map<GridKey, Optional<RecipeHolder<FleshCraftingRecipe>>> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<GridKey, Optional<RecipeHolder<FleshCraftingRecipe>>> eldest) {
+            return this.size() > CACHE_SIZE;
+        }
+    };
+
+    public static FleshRecipeMatcher get(Level level) {
+        return level.isClientSide() ? CLIENT : SERVER;
+    }
+
+    public static FleshRecipeMatcher client() {
+        return CLIENT;
+    }
+
+    public void invalidate() {
+        this.dirty = true;
+    }
+
+    public Optional<RecipeHolder<FleshCraftingRecipe>> find(CraftingInput input, Level level) {
+        long start = FleshProfiler.begin();
+        try {
+            return this.findUntimed(input, level);
+        } finally {
+            FleshProfiler.end(Subsystem.CRAFTING, start);
+        }
+    }
+
+    private Optional<RecipeHolder<FleshCraftingRecipe>> findUntimed(CraftingInput input, Level level) {
+        RecipeManager recipeManager = level.getRecipeManager();
+        if (this.dirty || recipeManager != this.builtFrom) {
+            this.rebuild(recipeManager);
+        }
+        if (input.isEmpty()) {
+            return Optional.empty();
+        }
+
+        GridKey key = GridKey.of(input);
+        Optional<RecipeHolder<FleshCraftingRecipe>> result = this.cache.get(key);
+        if (result == null) {
+            result = this.lookup(input, level);
+            this.cache.put(key, result);
+        }
+        return result;
+    }
+
+    private Optional<RecipeHolder<FleshCraftingRecipe>> lookup(CraftingInput input, Level level) {
+        for (RecipeHolder<FleshCraftingRecipe> recipe : this.index.getOrDefault(ItemSetKey.of(input), List.of())) {
+            if (recipe.value().matches(input, level)) {
+                return Optional.of(recipe);
+            }
+        }
+        for (RecipeHolder<FleshCraftingRecipe> recipe : this.unindexed) {
+            if (recipe.value().matches(input, level)) {
+                return Optional.of(recipe);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void rebuild(RecipeManager recipeManager) {
+        this.dirty = false;
+        this.builtFrom = recipeManager;
+        this.cache.clear();
+
+        Map<ItemSetKey, List<RecipeHolder<FleshCraftingRecipe>>> index = new HashMap<>();
+        List<RecipeHolder<FleshCraftingRecipe>> unindexed = new ArrayList<>();
+        for (RecipeHolder<FleshCraftingRecipe> recipe : recipeManager.getAllRecipesFor(FleshblockCompanionMod.FLESH_CRAFTING.get())) {
+            Set<ItemSetKey> keys = itemSets(recipe.value().getIngredients());
+            if (keys == null) {
+                unindexed.add(recipe);
+                continue;
+            }
+            for (ItemSetKey key : keys) {
+                index.computeIfAbsent(key, k -> new ArrayList<>()).add(recipe);
+            }
+        }
+        this.index = index;
+        this.unindexed = unindexed;
+    }
+
+    // Every set of distinct items a grid matching these ingredients can contain, null if there are too many
+    @Nullable
+    static Set<ItemSetKey> itemSets(List<Ingredient> ingredients) {
+        Set<ItemSetKey> sets = Set.of(new ItemSetKey(new int[0]));
+        for (Ingredient ingredient : ingredients) {
+            ItemStack[] items = ingredient.getItems();
+            if (items.length == 0) {
+                return null;
+            }
+
+            Set<ItemSetKey> next = new HashSet<>();
+            for (ItemSetKey set : sets) {
+                for (ItemStack item : items) {
+                    next.add(set.with(BuiltInRegistries.ITEM.getId(item.getItem())));
+                    if (next.size() > MAX_COMBINATIONS) {
+                        return null;
+                    }
+                }
+            }
+            sets = next;
+        }
+        return sets;
+    }
+
+    @SubscribeEvent
+    static void onTagsUpdated(TagsUpdatedEvent event) {
+        // Tags decide which items an ingredient accepts, so the index is stale once they change.
+        // A datapack reload also brings a new RecipeManager, which is picked up in find().
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.CLIENT_PACKET_RECEIVED) {
+            CLIENT.invalidate();
+        } else {
+            SERVER.invalidate();
+        }
+    }
+
+    // Sorted, distinct item registry ids
+    record ItemSetKey(int[] ids) {
+        static ItemSetKey of(CraftingInput input) {
+            int[] ids = new int[input.ingredientCount()];
+            int size = 0;
+            for (int i = 0; i < input.size(); i++) {
+                ItemStack stack = input.getItem(i);
+                if (!stack.isEmpty()) {
+                    ids[size++] = BuiltInRegistries.ITEM.getId(stack.getItem());
+                }
+            }
+            return of(ids, size);
+        }
+
+        // From the first size entries of ids, in any order and with duplicates. Sorts ids in place.
+        static ItemSetKey of(int[] ids, int size) {
+            Arrays.sort(ids, 0, size);
+
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                    ids[distinct++] = ids[i];
+                }
+            }
+            return new ItemSetKey(distinct == ids.length ? ids : Arrays.copyOf(ids, distinct));
+        }
+
+        ItemSetKey with(int id) {
+            int position = Arrays.binarySearch(this.ids, id);
+            if (position >= 0) {
+                return this;
+            }
+
+            position = -position - 1;
+            int[] ids = new int[this.ids.length + 1];
+            System.arraycopy(this.ids, 0, ids, 0, position);
+            ids[position] = id;
+            System.arraycopy(this.ids, position, ids, position + 1, this.ids.length - position);
+            return new ItemSetKey(ids);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ItemSetKey key && Arrays.equals(this.ids, key.ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(this.ids);
+        }
+    }
+
+    // The exact grid contents, one item per slot, compared by item and components
+    record GridKey(int width, int height, List<ItemStack> items) {
+        static GridKey of(CraftingInput input) {
+            List<ItemStack> items = new ArrayList<>(input.size());
+            for (int i = 0; i < input.size(); i++) {
+                ItemStack stack = input.getItem(i);
+                items.add(stack.isEmpty() ? ItemStack.EMPTY : stack.copyWithCount(1));
+            }
+            return new GridKey(input.width(), input.height(), items);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof GridKey key && this.width == key.width && this.height == key.height && ItemStack.listMatches(this.items, key.items);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * this.width + this.height) + ItemStack.hashStackList(this.items);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.tomtaru.fbcm.farm;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.tomtaru.fbcm.Config;
+import com.tomtaru.fbcm.ConfigSnapshot;
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+import com.tomtaru.fbcm.network.FleshStateSync;
+import com.tomtaru.fbcm.profiling.FleshProfiler;
+import com.tomtaru.fbcm.profiling.Subsystem;
+
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.CropBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.level.block.CropGrowEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+
+// Grows the crops on tilled flesh a whole chunk at a time, instead of relying on random ticks reaching each block.
+// Every chunk with a FleshIndex gets one growth step per growthInterval ticks. Chunks are visited round robin and
+// the scheduler stops for this tick once the configured time budget is used up, checked after every section, so
+// huge farms fall behind instead of slowing the server down. A chunk left halfway is finished first next tick.
+// Missed steps (budget, or the chunk being unloaded) are caught up from the game time stored in the index, which
+// makes the result the same no matter when the chunk is actually visited.
+@EventBusSubscriber(modid = FleshblockCompanionMod.MODID)
+public final class FleshGrowthScheduler {
+    private static final Map<ResourceKey<Level>, LongLinkedOpenHashSet> QUEUES = new HashMap<>();
+
+    private FleshGrowthScheduler() {
+    }
+
+    public static void schedule(ServerLevel level, ChunkPos pos) {
+        QUEUES.computeIfAbsent(level.dimension(), key -> new LongLinkedOpenHashSet()).add(pos.toLong());
+    }
+
+    @SubscribeEvent
+    static void onChunkLoad(ChunkEvent.Load event) {
+        if (event.getLevel() instanceof ServerLevel level && event.getChunk() instanceof LevelChunk chunk
+                && chunk.hasData(FleshblockCompanionMod.FLESH_INDEX) && !FleshIndex.get(chunk).isEmpty()) {
+            schedule(level, chunk.getPos());
+        }
+    }
+
+    // The scheduler replaces random tick growth on tilled flesh instead of adding to it. Bone meal still works,
+    // it does not go through this event.
+    @SubscribeEvent
+    static void onCropGrow(CropGrowEvent.Pre event) {
+        if (event.getLevel().getBlockState(event.getPos().below()).is(FleshblockCompanionMod.TILLED_FLESH.get())) {
+            event.setResult(CropGrowEvent.Pre.Result.DO_NOT_GROW);
+        }
+    }
+
+    @SubscribeEvent
+    static void onServerStopped(ServerStoppedEvent event) {
+        QUEUES.clear();
+    }
+
+    @SubscribeEvent
+    static void onLevelTick(LevelTickEvent.Post event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) {
+            return;
+        }
+        LongLinkedOpenHashSet queue = QUEUES.get(level.dimension());
+        if (queue == null || queue.isEmpty()) {
+            return;
+        }
+
+        long start = FleshProfiler.begin();
+        ConfigSnapshot config = Config.get();
+        long deadline = System.nanoTime() + config.growthBudgetMicros() * 1000L;
+        int interval = config.growthInterval();
+        int maxCatchUp = config.growthMaxCatchUp();
+        long gameTime = level.getGameTime();
+        // Visit every queued chunk at most once per tick. At least one section is grown every tick, however small
+        // the budget is, so the farm always makes progress.
+        for (int remaining = queue.size(); remaining > 0; remaining--) {
+            long chunkPos = queue.removeFirstLong();
+            LevelChunk chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkPos), ChunkPos.getZ(chunkPos));
+            // Unloaded chunks are scheduled again by ChunkEvent.Load, empty ones once a block is placed
+            if (chunk == null || !chunk.hasData(FleshblockCompanionMod.FLESH_INDEX)) {
+                continue;
+            }
+            FleshIndex index = FleshIndex.get(chunk);
+            if (index.isEmpty()) {
+                continue;
+            }
+
+            if (!advance(level, chunk, index, gameTime, interval, maxCatchUp, deadline)) {
+                // Out of time in the middle of the chunk, it goes first next tick to finish its pass
+                queue.addAndMoveToFirst(chunkPos);
+                break;
+            }
+            queue.add(chunkPos);
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        FleshProfiler.end(Subsystem.GROWTH, start);
+    }
+
+    // Applies the growth steps that are due for the chunk, one section at a time. Returns false when the deadline
+    // passed before the last section, the rest of the pass is then applied by the next call.
+    static boolean advance(ServerLevel level, LevelChunk chunk, FleshIndex index, long gameTime, int interval, int maxCatchUp, long deadline) {
+        if (index.pendingSteps == 0) {
+            if (index.lastGrowth < 0L) {
+                index.lastGrowth = gameTime;
+                chunk.setUnsaved(true);
+                return true;
+            }
+
+            long due = (gameTime - index.lastGrowth) / interval;
+            if (due <= 0L) {
+                return true;
+            }
+
+            index.lastGrowth += due * interval;
+            index.pendingSteps = (int) Math.min(due, maxCatchUp);
+            index.resumeAt = Integer.MIN_VALUE;
+            chunk.setUnsaved(true);
+        }
+
+        int[] sorted = index.sorted();
+        ChunkPos chunkPos = chunk.getPos();
+        BlockPos.MutableBlockPos above = new BlockPos.MutableBlockPos();
+        // Blocks placed or broken since the last call do not matter, the pass simply goes on at the first position
+        // that is not smaller than where it stopped
+        int i = resumeIndex(sorted, index.resumeAt);
+        while (i < sorted.length) {
+            int section = FleshIndex.sectionY(sorted[i]);
+            for (; i < sorted.length && FleshIndex.sectionY(sorted[i]) == section; i++) {
+                int packed = sorted[i];
+                above.set(chunkPos.getMinBlockX() + FleshIndex.unpackX(packed), FleshIndex.unpackY(packed) + 1, chunkPos.getMinBlockZ() + FleshIndex.unpackZ(packed));
+                grow(level, above, index.pendingSteps);
+            }
+            if (i < sorted.length && System.nanoTime() >= deadline) {
+                index.resumeAt = sorted[i];
+                return false;
+            }
+        }
+
+        index.pendingSteps = 0;
+        index.resumeAt = Integer.MIN_VALUE;
+        return true;
+    }
+
+    private static int resumeIndex(int[] sorted, int resumeAt) {
+        int i = Arrays.binarySearch(sorted, resumeAt);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    private static void grow(ServerLevel level, BlockPos pos, int steps) {
+        BlockState state = level.getBlockState(pos);
+        if (state.getBlock() instanceof CropBlock crop && !crop.isMaxAge(state)) {
+            // Growing a crop never needs neighbour updates, and this keeps the index stable while we iterate it.
+            // The clients get the new age through FleshStateSync, batched per section, instead of one block update each.
+            int age = Math.min(crop.getMaxAge(), crop.getAge(state) + steps);
+            level.setBlock(pos, crop.getStateForAge(age), Block.UPDATE_NONE);
+            FleshStateSync.queue(level, pos, age);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.tomtaru.fbcm.farm;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.neoforge.common.util.INBTSerializable;
+
+// Positions of every tilled flesh block in a chunk, attached to the LevelChunk and saved with it.
+// Positions are packed into a single int (y << 8 | z << 4 | x with chunk local x and z), so even a chunk full of
+// farmland only costs a primitive set and a plain int array on disk.
+public class FleshIndex implements INBTSerializable<CompoundTag> {
+    // Game time up to which growth has been applied, -1 until the scheduler sees the chunk for the first time
+    long lastGrowth = -1L;
+    // Growth steps of the current pass that still have to be applied from resumeAt on. A pass that runs out of
+    // time stops between two sections and the scheduler continues it on its next visit of the chunk.
+    int pendingSteps;
+    int resumeAt = Integer.MIN_VALUE;
+    private final IntOpenHashSet positions = new IntOpenHashSet();
+    // The positions in ascending order, which keeps every section together. Dropped whenever the set changes.
+    @Nullable
+    private int[] sorted;
+
+    public static FleshIndex get(LevelChunk chunk) {
+        return chunk.getData(FleshblockCompanionMod.FLESH_INDEX);
+    }
+
+    public static int pack(BlockPos pos) {
+        return pos.getY() << 8 | (pos.getZ() & 15) << 4 | pos.getX() & 15;
+    }
+
+    public static int unpackX(int packed) {
+        return packed & 15;
+    }
+
+    public static int unpackY(int packed) {
+        return packed >> 8;
+    }
+
+    public static int unpackZ(int packed) {
+        return packed >> 4 & 15;
+    }
+
+    public boolean add(BlockPos pos) {
+        return this.changed(this.positions.add(pack(pos)));
+    }
+
+    public boolean remove(BlockPos pos) {
+        return this.changed(this.positions.remove(pack(pos)));
+    }
+
+    private boolean changed(boolean changed) {
+        if (changed) {
+            this.sorted = null;
+        }
+        return changed;
+    }
+
+    public boolean contains(BlockPos pos) {
+        return this.positions.contains(pack(pos));
+    }
+
+    public int size() {
+        return this.positions.size();
+    }
+
+    public boolean isEmpty() {
+        return this.positions.isEmpty();
+    }
+
+    public IntIterator iterator() {
+        return this.positions.iterator();
+    }
+
+    // Packed positions sorted by y, then z, then x. Shared, do not modify it.
+    int[] sorted() {
+        if (this.sorted == null) {
+            this.sorted = this.positions.toIntArray();
+            Arrays.sort(this.sorted);
+        }
+        return this.sorted;
+    }
+
+    // Section y of a packed position
+    static int sectionY(int packed) {
+        return packed >> 12;
+    }
+
+    @Override
+    public CompoundTag serializeNBT(HolderLookup.Provider provider) {
+        CompoundTag tag = new CompoundTag();
+        tag.putIntArray("positions", this.positions.toIntArray());
+        tag.putLong("lastGrowth", this.lastGrowth);
+        if (this.pendingSteps > 0) {
+            tag.putInt("pendingSteps", this.pendingSteps);
+            tag.putInt("resumeAt", this.resumeAt);
+        }
+        return tag;
+    }
+
+    @Override
+    public void deserializeNBT(HolderLookup.Provider provider, CompoundTag tag) {
+        this.positions.clear();
+        this.positions.addAll(IntArrayList.wrap(tag.getIntArray("positions")));
+        this.sorted = null;
+        this.lastGrowth = tag.contains("lastGrowth") ? tag.getLong("lastGrowth") : -1L;
+        this.pendingSteps = tag.getInt("pendingSteps");
+        this.resumeAt = tag.contains("resumeAt") ? tag.getInt("resumeAt") : Integer.MIN_VALUE;
+    }
+}
@@ -0,0 +1,278 @@
+package com.tomtaru.fbcm.item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import javax.annotation.Nullable;
+
+import com.tomtaru.fbcm.Config;
+import com.tomtaru.fbcm.profiling.FleshProfiler;
+import com.tomtaru.fbcm.profiling.Subsystem;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.sounds.SoundEvents;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.stats.Stats;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.ExperienceOrb;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.context.UseOnContext;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.phys.BlockHitResult;
+import net.minecraft.world.phys.HitResult;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.common.ItemAbilities;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.level.BlockEvent;
+
+// Breaks (or tills) all extra blocks of an area or vein use of a detritus tool in one pass.
+// Positions are collected as packed longs. Blocks are replaced without neighbour updates or client packets, the
+// outside of the region gets a single round of neighbour updates afterwards, and every touched section is sent to
+// the tracking players as one ClientboundSectionBlocksUpdatePacket. Drops are merged into as few stacks as possible.
+public final class AreaMiner {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // Set while we post our own BreakEvents, so DetritusToolEvents does not start another area break from them
+    private static boolean mining;
+    // Sees every section packet that is built, the GameTests use it to count them
+    @Nullable
+    private static Consumer<ClientboundSectionBlocksUpdatePacket> listener;
+
+    private AreaMiner() {
+    }
+
+    public static void setListener(@Nullable Consumer<ClientboundSectionBlocksUpdatePacket> newListener) {
+        listener = newListener;
+    }
+
+    public static boolean isMining() {
+        return mining;
+    }
+
+    public static void mine(ServerLevel level, ServerPlayer player, ItemStack tool, BlockPos origin, BlockState originState, MiningMode mode) {
+        long start = FleshProfiler.begin();
+        mining = true;
+        try {
+            Predicate<BlockPos> canMine = pos -> {
+                BlockState state = level.getBlockState(pos);
+                return !state.isAir() && state.getDestroySpeed(level, pos) >= 0.0F && tool.isCorrectToolForDrops(state)
+                        && level.mayInteract(player, pos)
+                        && !NeoForge.EVENT_BUS.post(new BlockEvent.BreakEvent(level, pos.immutable(), state, player)).isCanceled();
+            };
+            LongOpenHashSet targets = collect(level, origin, originState, mode, hitFace(player), cap(player, tool), canMine);
+            if (targets.isEmpty()) {
+                return;
+            }
+
+            List<ItemStack> drops = new ArrayList<>();
+            int experience = 0;
+            Long2ObjectMap<ShortSet> sections = new Long2ObjectOpenHashMap<>();
+            BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+            LongIterator iterator = targets.iterator();
+            while (iterator.hasNext()) {
+                pos.set(iterator.nextLong());
+                BlockState state = level.getBlockState(pos);
+                if (!player.isCreative()) {
+                    BlockEntity blockEntity = level.getBlockEntity(pos);
+                    for (ItemStack drop : Block.getDrops(state, level, pos, blockEntity, player, tool)) {
+                        merge(drops, drop);
+                    }
+                    experience += state.getExpDrop(level, pos, blockEntity, player, tool);
+                }
+                level.setBlock(pos, state.getFluidState().createLegacyBlock(), Block.UPDATE_KNOWN_SHAPE);
+                sections.computeIfAbsent(SectionPos.asLong(pos), key -> new ShortOpenHashSet()).add(SectionPos.sectionRelativePos(pos));
+                player.awardStat(Stats.BLOCK_MINED.get(state.getBlock()));
+            }
+
+            updateOutside(level, targets);
+            sendSections(level, sections);
+
+            for (ItemStack drop : drops) {
+                Block.popResource(level, origin, drop);
+            }
+            if (experience > 0) {
+                ExperienceOrb.award(level, Vec3.atCenterOf(origin), experience);
+            }
+            if (!player.isCreative()) {
+                player.causeFoodExhaustion(0.005F * targets.size());
+                tool.hurtAndBreak(targets.size(), player, EquipmentSlot.MAINHAND);
+            }
+        } finally {
+            mining = false;
+            FleshProfiler.end(Subsystem.AREA_MINING, start);
+        }
+    }
+
+    public static void till(ServerLevel level, ServerPlayer player, InteractionHand hand, BlockPos origin, BlockState originState, MiningMode mode) {
+        long start = FleshProfiler.begin();
+        try {
+            tillUntimed(level, player, hand, origin, originState, mode);
+        } finally {
+            FleshProfiler.end(Subsystem.AREA_MINING, start);
+        }
+    }
+
+    private static void tillUntimed(ServerLevel level, ServerPlayer player, InteractionHand hand, BlockPos origin, BlockState originState, MiningMode mode) {
+        ItemStack tool = player.getItemInHand(hand);
+        Predicate<BlockPos> canTill = pos -> level.getBlockState(pos.above()).isAir() && level.mayInteract(player, pos)
+                && level.getBlockState(pos).getToolModifiedState(context(player, hand, pos), ItemAbilities.HOE_TILL, true) != null;
+        LongOpenHashSet targets = collect(level, origin, originState, mode, Direction.UP, cap(player, tool), canTill);
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        Long2ObjectMap<ShortSet> sections = new Long2ObjectOpenHashMap<>();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        LongIterator iterator = targets.iterator();
+        while (iterator.hasNext()) {
+            pos.set(iterator.nextLong());
+            BlockState tilled = level.getBlockState(pos).getToolModifiedState(context(player, hand, pos), ItemAbilities.HOE_TILL, false);
+            if (tilled != null) {
+                level.setBlock(pos, tilled, Block.UPDATE_KNOWN_SHAPE);
+                sections.computeIfAbsent(SectionPos.asLong(pos), key -> new ShortOpenHashSet()).add(SectionPos.sectionRelativePos(pos));
+            }
+        }
+
+        updateOutside(level, targets);
+        sendSections(level, sections);
+        level.playSound(null, origin, SoundEvents.HOE_TILL, SoundSource.BLOCKS, 1.0F, 1.0F);
+        if (!player.isCreative()) {
+            tool.hurtAndBreak(targets.size(), player, LivingEntity.getSlotForHand(hand));
+        }
+    }
+
+    // The extra positions of an area or vein around origin, origin itself is never included
+    static LongOpenHashSet collect(ServerLevel level, BlockPos origin, BlockState originState, MiningMode mode, Direction face, int cap, Predicate<BlockPos> accept) {
+        LongOpenHashSet targets = new LongOpenHashSet();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        if (mode == MiningMode.VEIN) {
+            LongOpenHashSet visited = new LongOpenHashSet();
+            LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+            visited.add(origin.asLong());
+            queue.enqueue(origin.asLong());
+            while (!queue.isEmpty() && targets.size() < cap) {
+                long current = queue.dequeueLong();
+                for (Direction direction : DIRECTIONS) {
+                    long next = BlockPos.offset(current, direction);
+                    if (!visited.add(next)) {
+                        continue;
+                    }
+                    pos.set(next);
+                    if (level.isLoaded(pos) && level.getBlockState(pos).is(originState.getBlock()) && accept.test(pos)) {
+                        targets.add(next);
+                        queue.enqueue(next);
+                        if (targets.size() >= cap) {
+                            break;
+                        }
+                    }
+                }
+            }
+        } else {
+            int radius = mode.radius();
+            Direction.Axis axis = face.getAxis();
+            for (int a = -radius; a <= radius && targets.size() < cap; a++) {
+                for (int b = -radius; b <= radius && targets.size() < cap; b++) {
+                    if (a == 0 && b == 0) {
+                        continue;
+                    }
+                    switch (axis) {
+                        case X -> pos.setWithOffset(origin, 0, a, b);
+                        case Y -> pos.setWithOffset(origin, a, 0, b);
+                        case Z -> pos.setWithOffset(origin, a, b, 0);
+                    }
+                    if (level.isLoaded(pos) && accept.test(pos)) {
+                        targets.add(pos.asLong());
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+
+    private static int cap(ServerPlayer player, ItemStack tool) {
+        int cap = Config.get().areaMiningCap();
+        // Never break more blocks than the tool has durability left
+        if (!player.isCreative() && tool.isDamageableItem()) {
+            cap = Math.min(cap, tool.getMaxDamage() - tool.getDamageValue() - 1);
+        }
+        return cap;
+    }
+
+    private static Direction hitFace(ServerPlayer player) {
+        HitResult hit = player.pick(player.blockInteractionRange(), 1.0F, false);
+        return hit.getType() == HitResult.Type.BLOCK ? ((BlockHitResult) hit).getDirection() : Direction.UP;
+    }
+
+    private static UseOnContext context(ServerPlayer player, InteractionHand hand, BlockPos pos) {
+        return new UseOnContext(player, hand, new BlockHitResult(Vec3.atCenterOf(pos), Direction.UP, pos.immutable(), false));
+    }
+
+    private static void merge(List<ItemStack> drops, ItemStack drop) {
+        for (ItemStack stack : drops) {
+            if (drop.isEmpty()) {
+                return;
+            }
+            if (ItemStack.isSameItemSameComponents(stack, drop) && stack.getCount() < stack.getMaxStackSize()) {
+                int moved = Math.min(drop.getCount(), stack.getMaxStackSize() - stack.getCount());
+                stack.grow(moved);
+                drop.shrink(moved);
+            }
+        }
+        if (!drop.isEmpty()) {
+            drops.add(drop);
+        }
+    }
+
+    // One round of neighbour and shape updates for the blocks bordering the region, instead of one per changed block
+    private static void updateOutside(ServerLevel level, LongOpenHashSet targets) {
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        LongIterator iterator = targets.iterator();
+        while (iterator.hasNext()) {
+            long current = iterator.nextLong();
+            for (Direction direction : DIRECTIONS) {
+                if (!targets.contains(BlockPos.offset(current, direction))) {
+                    pos.set(current);
+                    BlockState state = level.getBlockState(pos);
+                    state.updateNeighbourShapes(level, pos, Block.UPDATE_ALL);
+                    level.updateNeighborsAt(pos, state.getBlock());
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void sendSections(ServerLevel level, Long2ObjectMap<ShortSet> sections) {
+        long start = FleshProfiler.begin();
+        for (Long2ObjectMap.Entry<ShortSet> entry : sections.long2ObjectEntrySet()) {
+            SectionPos sectionPos = SectionPos.of(entry.getLongKey());
+            LevelChunk chunk = level.getChunk(sectionPos.x(), sectionPos.z());
+            ClientboundSectionBlocksUpdatePacket packet = new ClientboundSectionBlocksUpdatePacket(sectionPos, entry.getValue(),
+                    chunk.getSection(chunk.getSectionIndexFromSectionY(sectionPos.y())));
+            if (listener != null) {
+                listener.accept(packet);
+            }
+            for (ServerPlayer player : level.getChunkSource().chunkMap.getPlayers(chunk.getPos(), false)) {
+                player.connection.send(packet);
+            }
+        }
+        FleshProfiler.end(Subsystem.NETWORK, start);
+    }
+}
@@ -0,0 +1,30 @@
+package com.tomtaru.fbcm.item;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionResult;
+import net.minecraft.world.item.HoeItem;
+import net.minecraft.world.item.Tier;
+import net.minecraft.world.item.context.UseOnContext;
+import net.minecraft.world.level.block.state.BlockState;
+
+// Tills the whole area or vein around the clicked block when the tool is not in single mode
+public class DetritusHoeItem extends HoeItem {
+    public DetritusHoeItem(Tier tier, Properties properties) {
+        super(tier, properties);
+    }
+
+    @Override
+    public InteractionResult useOn(UseOnContext context) {
+        BlockState originState = context.getLevel().getBlockState(context.getClickedPos());
+        MiningMode mode = context.getItemInHand().getOrDefault(FleshblockCompanionMod.MINING_MODE, MiningMode.SINGLE);
+        InteractionResult result = super.useOn(context);
+        if (result.consumesAction() && mode != MiningMode.SINGLE && context.getLevel() instanceof ServerLevel level
+                && context.getPlayer() instanceof ServerPlayer player && !player.isShiftKeyDown()) {
+            AreaMiner.till(level, player, context.getHand(), context.getClickedPos(), originState, mode);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,100 @@
+package com.tomtaru.fbcm.item;
+
+import javax.annotation.Nullable;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.InteractionResult;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.common.ItemAbilities;
+import net.neoforged.neoforge.event.entity.player.PlayerInteractEvent;
+import net.neoforged.neoforge.event.level.BlockEvent;
+
+// Game events of the detritus tools: cycling the mining mode, tilling flesh, and area or vein breaks.
+// An area break is two steps. The BreakEvent of the origin block only remembers it, and the extra blocks are mined by
+// afterBreak() once ServerPlayerGameMode.destroyBlock has really broken the origin, so a break that fails or is
+// cancelled after the event never mines anything around it.
+@EventBusSubscriber(modid = FleshblockCompanionMod.MODID)
+public final class DetritusToolEvents {
+    // Blocks a hoe turns into tilled flesh
+    public static final TagKey<Block> FLESH = TagKey.create(Registries.BLOCK, ResourceLocation.fromNamespaceAndPath(FleshblockCompanionMod.MODID, "flesh"));
+
+    // The area break whose origin is being broken right now, only touched from the server thread
+    @Nullable
+    private static PendingBreak pending;
+
+    private DetritusToolEvents() {
+    }
+
+    // Sneak + use cycles the mining mode of any tool that has one
+    @SubscribeEvent
+    static void onRightClickItem(PlayerInteractEvent.RightClickItem event) {
+        ItemStack stack = event.getItemStack();
+        MiningMode mode = stack.get(FleshblockCompanionMod.MINING_MODE);
+        if (mode == null || !event.getEntity().isShiftKeyDown()) {
+            return;
+        }
+
+        if (!event.getLevel().isClientSide()) {
+            MiningMode next = mode.next();
+            stack.set(FleshblockCompanionMod.MINING_MODE, next);
+            event.getEntity().displayClientMessage(Component.translatable("message.fbcm.mining_mode", next.displayName()), true);
+        }
+        event.setCancellationResult(InteractionResult.sidedSuccess(event.getLevel().isClientSide()));
+        event.setCanceled(true);
+    }
+
+    // Lowest priority so protection mods get to cancel the original break before we touch anything around it.
+    // Nothing is mined here yet, the origin block can still survive the break after the event.
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    static void onBreak(BlockEvent.BreakEvent event) {
+        if (AreaMiner.isMining() || !(event.getPlayer() instanceof ServerPlayer player) || !(event.getLevel() instanceof ServerLevel level)) {
+            return;
+        }
+
+        ItemStack tool = player.getMainHandItem();
+        MiningMode mode = tool.getOrDefault(FleshblockCompanionMod.MINING_MODE, MiningMode.SINGLE);
+        // Sneaking always breaks a single block
+        if (mode != MiningMode.SINGLE && !player.isShiftKeyDown() && tool.isCorrectToolForDrops(event.getState())) {
+            pending = new PendingBreak(level, player, tool, event.getPos().immutable(), event.getState(), mode);
+        }
+    }
+
+    // Called by ServerPlayerGameModeMixin when ServerPlayerGameMode.destroyBlock returns. Mines the area of the
+    // pending break once its origin block is really gone, with the tool as the origin break left it.
+    public static void afterBreak(ServerPlayer player, BlockPos pos, boolean destroyed) {
+        PendingBreak areaBreak = pending;
+        if (areaBreak == null || areaBreak.player != player || !areaBreak.origin.equals(pos)) {
+            return;
+        }
+
+        pending = null;
+        // The origin break may have used up the last durability
+        if (destroyed && !areaBreak.tool.isEmpty() && player.getMainHandItem() == areaBreak.tool) {
+            AreaMiner.mine(areaBreak.level, player, areaBreak.tool, areaBreak.origin, areaBreak.originState, areaBreak.mode);
+        }
+    }
+
+    @SubscribeEvent
+    static void onToolModification(BlockEvent.BlockToolModificationEvent event) {
+        if (event.getItemAbility() == ItemAbilities.HOE_TILL && event.getState().is(FLESH)
+                && event.getLevel().getBlockState(event.getPos().above()).isAir()) {
+            event.setFinalState(FleshblockCompanionMod.TILLED_FLESH.get().defaultBlockState());
+        }
+    }
+
+    private record PendingBreak(ServerLevel level, ServerPlayer player, ItemStack tool, BlockPos origin, BlockState originState, MiningMode mode) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.tomtaru.fbcm.item;
+
+import com.mojang.serialization.Codec;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.util.StringRepresentable;
+import net.neoforged.neoforge.network.codec.NeoForgeStreamCodecs;
+
+// What a detritus tool breaks or tills besides the block it is used on, stored on the tool as a data component
+public enum MiningMode implements StringRepresentable {
+    SINGLE("single", 0),
+    AREA_3X3("area_3x3", 1),
+    AREA_5X5("area_5x5", 2),
+    // Every connected block of the same kind, up to the configured cap
+    VEIN("vein", 0);
+
+    public static final Codec<MiningMode> CODEC = StringRepresentable.fromEnum(MiningMode::values);
+    public static final StreamCodec<FriendlyByteBuf, MiningMode> STREAM_CODEC = NeoForgeStreamCodecs.enumCodec(MiningMode.class);
+
+    private final String name;
+    // Distance from the centre block for the area modes
+    private final int radius;
+
+    MiningMode(String name, int radius) {
+        this.name = name;
+        this.radius = radius;
+    }
+
+    public int radius() {
+        return this.radius;
+    }
+
+    public MiningMode next() {
+        return values()[(this.ordinal() + 1) % values().length];
+    }
+
+    public Component displayName() {
+        return Component.translatable("mining_mode.fbcm." + this.name);
+    }
+
+    @Override
+    public String getSerializedName() {
+        return this.name;
+    }
+}
@@ -0,0 +1,21 @@
+package com.tomtaru.fbcm.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.tomtaru.fbcm.client.animation.FleshAnimations;
+
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+
+@Mixin(ClientLevel.class)
+public abstract class ClientLevelMixin {
+    // Single block and section updates from the server, full chunks are picked up through ChunkEvent.Load.
+    @Inject(method = "setServerVerifiedBlockState", at = @At("HEAD"))
+    private void fbcm$trackFleshBlock(BlockPos pos, BlockState state, int flags, CallbackInfo ci) {
+        FleshAnimations.onBlockChanged(pos, state);
+    }
+}
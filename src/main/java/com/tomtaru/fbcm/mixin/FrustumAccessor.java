@@ -0,0 +1,13 @@
+package com.tomtaru.fbcm.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import net.minecraft.client.renderer.culling.Frustum;
+
+// The coordinate based frustum test behind Frustum.isVisible(AABB), so the per frame section checks need no AABB.
+@Mixin(Frustum.class)
+public interface FrustumAccessor {
+    @Invoker("cubeInFrustum")
+    boolean fbcm$cubeInFrustum(double minX, double minY, double minZ, double maxX, double maxY, double maxZ);
+}
@@ -0,0 +1,32 @@
+package com.tomtaru.fbcm.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.tomtaru.fbcm.profiling.FleshProfiler;
+import com.tomtaru.fbcm.profiling.Subsystem;
+
+import net.minecraft.client.renderer.chunk.SectionCompiler;
+
+@Mixin(SectionCompiler.class)
+public abstract class SectionCompilerMixin {
+    // Sections are compiled on several worker threads at once, each keeps its own start time
+    @Unique
+    private static final ThreadLocal<long[]> fbcm$start = ThreadLocal.withInitial(() -> new long[1]);
+
+    // Times every section rebuild, with or without the merged tilled flesh tops, see Subsystem.SECTION_COMPILE.
+    @Inject(method = "compile", at = @At("HEAD"))
+    private void fbcm$startCompile(CallbackInfoReturnable<SectionCompiler.Results> cir) {
+        fbcm$start.get()[0] = FleshProfiler.begin();
+    }
+
+    @Inject(method = "compile", at = @At("RETURN"))
+    private void fbcm$endCompile(CallbackInfoReturnable<SectionCompiler.Results> cir) {
+        long[] start = fbcm$start.get();
+        FleshProfiler.end(Subsystem.SECTION_COMPILE, start[0]);
+        start[0] = 0L;
+    }
+}
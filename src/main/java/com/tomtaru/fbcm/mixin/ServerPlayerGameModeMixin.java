@@ -0,0 +1,27 @@
+package com.tomtaru.fbcm.mixin;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.tomtaru.fbcm.item.DetritusToolEvents;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.level.ServerPlayerGameMode;
+
+@Mixin(ServerPlayerGameMode.class)
+public abstract class ServerPlayerGameModeMixin {
+    @Shadow
+    @Final
+    protected ServerPlayer player;
+
+    // Every return of a player's block break, whether the block was actually broken or not
+    @Inject(method = "destroyBlock", at = @At("RETURN"))
+    private void fbcm$afterDestroyBlock(BlockPos pos, CallbackInfoReturnable<Boolean> cir) {
+        DetritusToolEvents.afterBreak(this.player, pos, cir.getReturnValueZ());
+    }
+}
@@ -0,0 +1,19 @@
+package com.tomtaru.fbcm.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+import com.mojang.blaze3d.platform.NativeImage;
+
+import net.minecraft.client.renderer.texture.SpriteContents;
+
+// Gives the precomputed flesh animations access to the source frames and the atlas upload of a sprite.
+@Mixin(SpriteContents.class)
+public interface SpriteContentsAccessor {
+    @Accessor("byMipLevel")
+    NativeImage[] fbcm$getByMipLevel();
+
+    @Invoker("upload")
+    void fbcm$upload(int x, int y, int frameX, int frameY, NativeImage[] atlasData);
+}
@@ -0,0 +1,23 @@
+package com.tomtaru.fbcm.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+import com.tomtaru.fbcm.client.animation.FleshAnimations;
+
+import net.minecraft.client.renderer.texture.SpriteContents;
+
+@Mixin(SpriteContents.class)
+public abstract class SpriteContentsMixin {
+    // Every atlas upload of a sprite, vanilla or ours, ends up here, so this is where the uploads are counted.
+    @Inject(method = "upload", at = @At("HEAD"))
+    private void fbcm$countUpload(int x, int y, int frameX, int frameY, NativeImage[] atlasData, CallbackInfo ci) {
+        if (((SpriteContents) (Object) this).name().getNamespace().equals(FleshblockCompanionMod.MODID)) {
+            FleshAnimations.recordUpload();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.tomtaru.fbcm.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+import com.tomtaru.fbcm.client.animation.FleshSpriteTicker;
+
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+
+@Mixin(TextureAtlasSprite.class)
+public abstract class TextureAtlasSpriteMixin {
+    // Tickers are created right after the atlas is stitched, which is when our animations get precomputed.
+    @Inject(method = "createTicker", at = @At("RETURN"), cancellable = true)
+    private void fbcm$wrapTicker(CallbackInfoReturnable<TextureAtlasSprite.Ticker> cir) {
+        TextureAtlasSprite sprite = (TextureAtlasSprite) (Object) this;
+        TextureAtlasSprite.Ticker ticker = cir.getReturnValue();
+        if (ticker != null && sprite.contents().name().getNamespace().equals(FleshblockCompanionMod.MODID)) {
+            cir.setReturnValue(FleshSpriteTicker.create(sprite, ticker));
+        }
+    }
+}
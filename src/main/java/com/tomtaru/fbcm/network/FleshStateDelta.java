@@ -0,0 +1,80 @@
+package com.tomtaru.fbcm.network;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.VarInt;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+
+// All fbcm state changes of one chunk section during one tick.
+// positions are section relative (SectionPos.sectionRelativePos), sorted and distinct, values[i] belongs to
+// positions[i]. On the wire the positions are varint deltas, which is one byte each for dense farms, and the
+// values are varint run lengths followed by the byte value, since a field usually grows in lockstep.
+public record FleshStateDelta(long section, short[] positions, byte[] values) implements CustomPacketPayload {
+    public static final Type<FleshStateDelta> TYPE = new Type<>(ResourceLocation.fromNamespaceAndPath(FleshblockCompanionMod.MODID, "flesh_state_delta"));
+    public static final StreamCodec<ByteBuf, FleshStateDelta> STREAM_CODEC = StreamCodec.of(FleshStateDelta::write, FleshStateDelta::read);
+
+    private static final int SECTION_BLOCKS = 16 * 16 * 16;
+
+    @Override
+    public Type<FleshStateDelta> type() {
+        return TYPE;
+    }
+
+    private static void write(ByteBuf buffer, FleshStateDelta delta) {
+        buffer.writeLong(delta.section);
+        int count = delta.positions.length;
+        VarInt.write(buffer, count);
+
+        int previous = 0;
+        for (short position : delta.positions) {
+            VarInt.write(buffer, position - previous);
+            previous = position;
+        }
+
+        for (int start = 0; start < count; ) {
+            byte value = delta.values[start];
+            int end = start + 1;
+            while (end < count && delta.values[end] == value) {
+                end++;
+            }
+            VarInt.write(buffer, end - start);
+            buffer.writeByte(value);
+            start = end;
+        }
+    }
+
+    private static FleshStateDelta read(ByteBuf buffer) {
+        long section = buffer.readLong();
+        int count = VarInt.read(buffer);
+        if (count < 0 || count > SECTION_BLOCKS) {
+            throw new DecoderException("Flesh state delta with " + count + " positions");
+        }
+
+        short[] positions = new short[count];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            position += VarInt.read(buffer);
+            if (position < 0 || position >= SECTION_BLOCKS) {
+                throw new DecoderException("Flesh state delta position " + position + " outside of the section");
+            }
+            positions[i] = (short) position;
+        }
+
+        byte[] values = new byte[count];
+        for (int start = 0; start < count; ) {
+            int run = VarInt.read(buffer);
+            if (run <= 0 || run > count - start) {
+                throw new DecoderException("Flesh state delta run of " + run + " with " + (count - start) + " values left");
+            }
+            byte value = buffer.readByte();
+            for (int i = 0; i < run; i++) {
+                values[start++] = value;
+            }
+        }
+        return new FleshStateDelta(section, positions, values);
+    }
+}
@@ -0,0 +1,112 @@
+package com.tomtaru.fbcm.network;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+import com.tomtaru.fbcm.profiling.FleshProfiler;
+import com.tomtaru.fbcm.profiling.Subsystem;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2ByteMap;
+import it.unimi.dsi.fastutil.shorts.Short2ByteOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.neoforged.neoforge.network.PacketDistributor;
+import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+import net.neoforged.neoforge.network.handling.IPayloadHandler;
+
+// Sends fbcm block state to clients without a vanilla block update per block.
+// Changes are queued per chunk section. At the end of the server tick every touched section becomes one
+// FleshStateDelta, sent only to the players tracking its chunk. A position changed several times in one tick is
+// only sent with its last value. Players that start tracking later get the real block states with the chunk.
+@EventBusSubscriber(modid = FleshblockCompanionMod.MODID)
+public final class FleshStateSync {
+    private static final String PROTOCOL_VERSION = "1";
+    private static final Map<ResourceKey<Level>, Long2ObjectMap<Short2ByteMap>> PENDING = new HashMap<>();
+    // Sees every delta that is built, the GameTests use it to measure the sync bandwidth
+    @Nullable
+    private static Consumer<FleshStateDelta> listener;
+    // What a client does with a delta, set by FleshblockCompanionModClient. A dedicated server never receives one.
+    private static IPayloadHandler<FleshStateDelta> clientHandler = (delta, context) -> {
+    };
+
+    private FleshStateSync() {
+    }
+
+    // Registered on the mod event bus by FleshblockCompanionMod, after every mod constructor ran
+    public static void registerPayloads(RegisterPayloadHandlersEvent event) {
+        // Handlers run on the main thread
+        event.registrar(PROTOCOL_VERSION).playToClient(FleshStateDelta.TYPE, FleshStateDelta.STREAM_CODEC, clientHandler);
+    }
+
+    // Only called on the physical client, keeps the client classes out of this common one
+    public static void setClientHandler(IPayloadHandler<FleshStateDelta> handler) {
+        clientHandler = handler;
+    }
+
+    public static void setListener(@Nullable Consumer<FleshStateDelta> newListener) {
+        listener = newListener;
+    }
+
+    // Queues the new value of the block at pos for the players tracking it
+    public static void queue(ServerLevel level, BlockPos pos, int value) {
+        PENDING.computeIfAbsent(level.dimension(), key -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(SectionPos.asLong(pos), key -> new Short2ByteOpenHashMap())
+                .put(SectionPos.sectionRelativePos(pos), (byte) value);
+    }
+
+    @SubscribeEvent
+    static void onServerTick(ServerTickEvent.Post event) {
+        if (PENDING.isEmpty()) {
+            return;
+        }
+
+        long start = FleshProfiler.begin();
+        for (ServerLevel level : event.getServer().getAllLevels()) {
+            Long2ObjectMap<Short2ByteMap> sections = PENDING.get(level.dimension());
+            if (sections == null) {
+                continue;
+            }
+            for (Long2ObjectMap.Entry<Short2ByteMap> entry : sections.long2ObjectEntrySet()) {
+                long section = entry.getLongKey();
+                FleshStateDelta delta = delta(section, entry.getValue());
+                if (listener != null) {
+                    listener.accept(delta);
+                }
+                PacketDistributor.sendToPlayersTrackingChunk(level, new ChunkPos(SectionPos.x(section), SectionPos.z(section)), delta);
+            }
+        }
+        PENDING.clear();
+        FleshProfiler.end(Subsystem.NETWORK, start);
+    }
+
+    @SubscribeEvent
+    static void onServerStopped(ServerStoppedEvent event) {
+        PENDING.clear();
+    }
+
+    static FleshStateDelta delta(long section, Short2ByteMap changes) {
+        // Section relative positions are 12 bits, so sorting the shorts sorts the positions
+        short[] positions = changes.keySet().toShortArray();
+        Arrays.sort(positions);
+        byte[] values = new byte[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            values[i] = changes.get(positions[i]);
+        }
+        return new FleshStateDelta(section, positions, values);
+    }
+}
@@ -0,0 +1,193 @@
+package com.tomtaru.fbcm.profiling;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import javax.annotation.Nullable;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+// Times the mod's hot paths. Call sites look like
+//     long start = FleshProfiler.begin();
+//     ...
+//     FleshProfiler.end(Subsystem.SPREAD, start);
+// While neither /fbcm profile nor a JFR recording is running, begin() is one volatile read and end() returns at once.
+// Durations go into the subsystem's TimerHistogram while profiling, and into its SubsystemEvent while a JFR recording
+// has that event enabled.
+// The GameTests can also count what the mod allocates: while profiling, on the thread passed to
+// countAllocations(), the bytes allocated inside outermost sections are added up. Nested sections are already
+// part of their outer one.
+public final class FleshProfiler {
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss", Locale.ROOT);
+
+    private static volatile boolean profiling;
+    private static volatile boolean recording;
+    // profiling || recording, so begin() only needs one read
+    private static volatile boolean active;
+    private static long startedAt;
+    private static long stoppedAt;
+    @Nullable
+    private static volatile Thread allocationThread;
+    // Only touched from allocationThread
+    private static int allocationDepth;
+    private static long allocationStart;
+    private static long allocatedBytes;
+
+    static {
+        if (FlightRecorder.isAvailable()) {
+            FlightRecorder.addListener(new FlightRecorderListener() {
+                @Override
+                public void recorderInitialized(FlightRecorder recorder) {
+                    refreshRecording(recorder);
+                }
+
+                @Override
+                public void recordingStateChanged(Recording changed) {
+                    refreshRecording(FlightRecorder.getFlightRecorder());
+                }
+            });
+        }
+    }
+
+    private FleshProfiler() {
+    }
+
+    // Start of a timed section, 0 when nothing is listening
+    public static long begin() {
+        if (!active) {
+            return 0L;
+        }
+        if (allocationThread == Thread.currentThread() && allocationDepth++ == 0) {
+            allocationStart = threadAllocatedBytes();
+        }
+        return System.nanoTime();
+    }
+
+    public static void end(Subsystem subsystem, long start) {
+        if (start == 0L) {
+            return;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        if (allocationThread == Thread.currentThread() && allocationDepth > 0 && --allocationDepth == 0) {
+            allocatedBytes += threadAllocatedBytes() - allocationStart;
+        }
+        if (profiling) {
+            subsystem.histogram.record(elapsed);
+        }
+        if (recording) {
+            subsystem.emit(elapsed);
+        }
+    }
+
+    public static boolean isProfiling() {
+        return profiling;
+    }
+
+    // What was measured for the subsystem since the last start()
+    public static TimerHistogram.Summary summary(Subsystem subsystem) {
+        return subsystem.histogram.summarize();
+    }
+
+    // Starts counting the allocations of thread from zero, null stops counting. Call it from that thread.
+    public static synchronized void countAllocations(@Nullable Thread thread) {
+        allocationThread = thread;
+        allocationDepth = 0;
+        allocatedBytes = 0L;
+    }
+
+    // Bytes allocated in timed sections since countAllocations()
+    public static long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    private static long threadAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    // Clears the previous results, so every start begins a new profile
+    public static synchronized void start() {
+        for (Subsystem subsystem : Subsystem.values()) {
+            subsystem.histogram.reset();
+        }
+        startedAt = System.nanoTime();
+        stoppedAt = 0L;
+        profiling = true;
+        updateActive();
+    }
+
+    public static synchronized void stop() {
+        profiling = false;
+        stoppedAt = System.nanoTime();
+        updateActive();
+    }
+
+    // Writes what was measured so far as a CSV and a JSON file into the directory, returns the CSV
+    public static synchronized Path dump(Path directory) throws IOException {
+        long end = profiling ? System.nanoTime() : stoppedAt;
+        double seconds = startedAt == 0L ? 0.0 : (end - startedAt) / 1.0E9;
+        String name = "fbcm-profile-" + LocalDateTime.now().format(FILE_TIME);
+
+        JsonObject json = new JsonObject();
+        json.addProperty("seconds", seconds);
+        JsonArray subsystems = new JsonArray();
+        StringBuilder csv = new StringBuilder("subsystem,count,total_ms,mean_us,p50_us,p99_us,max_us\n");
+        for (Subsystem subsystem : Subsystem.values()) {
+            TimerHistogram.Summary summary = subsystem.histogram.summarize();
+            double mean = summary.count() == 0L ? 0.0 : summary.totalNanos() / (double) summary.count();
+            csv.append(String.format(Locale.ROOT, "%s,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n", subsystem.id(), summary.count(), summary.totalNanos() / 1.0E6,
+                    mean / 1.0E3, summary.p50Nanos() / 1.0E3, summary.p99Nanos() / 1.0E3, summary.maxNanos() / 1.0E3));
+
+            JsonObject entry = new JsonObject();
+            entry.addProperty("subsystem", subsystem.id());
+            entry.addProperty("count", summary.count());
+            entry.addProperty("total_ns", summary.totalNanos());
+            entry.addProperty("mean_ns", mean);
+            entry.addProperty("p50_ns", summary.p50Nanos());
+            entry.addProperty("p99_ns", summary.p99Nanos());
+            entry.addProperty("max_ns", summary.maxNanos());
+            subsystems.add(entry);
+        }
+        json.add("subsystems", subsystems);
+
+        Files.createDirectories(directory);
+        Path csvFile = directory.resolve(name + ".csv");
+        Files.writeString(csvFile, csv, StandardCharsets.UTF_8);
+        try (Writer writer = Files.newBufferedWriter(directory.resolve(name + ".json"), StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(json, writer);
+        }
+        FleshblockCompanionMod.LOGGER.info("Wrote fbcm profile to {}", csvFile);
+        return csvFile;
+    }
+
+    private static void refreshRecording(FlightRecorder recorder) {
+        boolean running = false;
+        for (Recording candidate : recorder.getRecordings()) {
+            if (candidate.getState() == RecordingState.RUNNING) {
+                running = true;
+                break;
+            }
+        }
+        recording = running;
+        updateActive();
+    }
+
+    private static synchronized void updateActive() {
+        active = profiling || recording;
+    }
+}
@@ -0,0 +1,54 @@
+package com.tomtaru.fbcm.profiling;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+// /fbcm profile start|stop|dump, operators only
+public final class ProfileCommand {
+    private ProfileCommand() {
+    }
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal(FleshblockCompanionMod.MODID)
+                .requires(source -> source.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(Commands.literal("profile")
+                        .then(Commands.literal("start").executes(context -> start(context.getSource())))
+                        .then(Commands.literal("stop").executes(context -> stop(context.getSource())))
+                        .then(Commands.literal("dump").executes(context -> dump(context.getSource())))));
+    }
+
+    private static int start(CommandSourceStack source) {
+        FleshProfiler.start();
+        source.sendSuccess(() -> Component.translatable("commands.fbcm.profile.started"), true);
+        return 1;
+    }
+
+    private static int stop(CommandSourceStack source) {
+        if (!FleshProfiler.isProfiling()) {
+            source.sendFailure(Component.translatable("commands.fbcm.profile.not_running"));
+            return 0;
+        }
+        FleshProfiler.stop();
+        source.sendSuccess(() -> Component.translatable("commands.fbcm.profile.stopped"), true);
+        return 1;
+    }
+
+    private static int dump(CommandSourceStack source) {
+        try {
+            Path file = FleshProfiler.dump(source.getServer().getServerDirectory());
+            source.sendSuccess(() -> Component.translatable("commands.fbcm.profile.dumped", file.getFileName().toString()), false);
+            return 1;
+        } catch (IOException e) {
+            FleshblockCompanionMod.LOGGER.error("Could not write the fbcm profile", e);
+            source.sendFailure(Component.translatable("commands.fbcm.profile.failed", e.getMessage()));
+            return 0;
+        }
+    }
+}
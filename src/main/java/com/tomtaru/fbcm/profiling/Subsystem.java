@@ -0,0 +1,58 @@
+package com.tomtaru.fbcm.profiling;
+
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import jdk.jfr.EventType;
+
+// The parts of the mod that are timed by FleshProfiler
+public enum Subsystem {
+    // FleshGrowthScheduler, per level tick
+    GROWTH("growth", SubsystemEvent.Growth.class, SubsystemEvent.Growth::new),
+    // FleshSpreadEngine, per server tick
+    SPREAD("spread", SubsystemEvent.Spread.class, SubsystemEvent.Spread::new),
+    // Placing and removing tilled flesh, including the FleshIndex upkeep
+    FLESH_BLOCKS("flesh_blocks", SubsystemEvent.FleshBlocks.class, SubsystemEvent.FleshBlocks::new),
+    // FleshRecipeMatcher lookups
+    CRAFTING("crafting", SubsystemEvent.Crafting.class, SubsystemEvent.Crafting::new),
+    // One area, vein or till use of a detritus tool
+    AREA_MINING("area_mining", SubsystemEvent.AreaMining.class, SubsystemEvent.AreaMining::new),
+    // Packets the mod builds and sends itself
+    NETWORK("network", SubsystemEvent.Network.class, SubsystemEvent.Network::new),
+    // Client section rebuilds, all of them and not only the ones with fbcm blocks. Only measured in the client's
+    // JVM, so in singleplayer or on a client started with the JFR events enabled.
+    SECTION_COMPILE("section_compile", SubsystemEvent.SectionCompile.class, SubsystemEvent.SectionCompile::new);
+
+    private final String id;
+    private final Class<? extends SubsystemEvent> eventClass;
+    private final Supplier<SubsystemEvent> event;
+    final TimerHistogram histogram = new TimerHistogram();
+    // Looked up on the first emit, so JFR is only touched once a recording runs
+    @Nullable
+    private volatile EventType eventType;
+
+    Subsystem(String id, Class<? extends SubsystemEvent> eventClass, Supplier<SubsystemEvent> event) {
+        this.id = id;
+        this.eventClass = eventClass;
+        this.event = event;
+    }
+
+    public String id() {
+        return this.id;
+    }
+
+    // Only allocates the event while a recording has this event type enabled, not for every recording
+    void emit(long elapsed) {
+        EventType type = this.eventType;
+        if (type == null) {
+            type = EventType.getEventType(this.eventClass);
+            this.eventType = type;
+        }
+        if (type.isEnabled()) {
+            SubsystemEvent event = this.event.get();
+            event.elapsed = elapsed;
+            event.commit();
+        }
+    }
+}
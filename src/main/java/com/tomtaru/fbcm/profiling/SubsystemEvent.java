@@ -0,0 +1,53 @@
+package com.tomtaru.fbcm.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// JFR events for the mod's hot paths, one type per Subsystem so they can be filtered and enabled separately.
+// They are committed with the measured time as a field, see FleshProfiler.end().
+@Category({ "Fleshblock Companion Mod" })
+@StackTrace(false)
+public abstract class SubsystemEvent extends Event {
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Name("fbcm.Growth")
+    @Label("Tilled Flesh Growth")
+    static final class Growth extends SubsystemEvent {
+    }
+
+    @Name("fbcm.Spread")
+    @Label("Flesh Spread")
+    static final class Spread extends SubsystemEvent {
+    }
+
+    @Name("fbcm.FleshBlocks")
+    @Label("Flesh Block Updates")
+    static final class FleshBlocks extends SubsystemEvent {
+    }
+
+    @Name("fbcm.Crafting")
+    @Label("Flesh Crafting Match")
+    static final class Crafting extends SubsystemEvent {
+    }
+
+    @Name("fbcm.AreaMining")
+    @Label("Detritus Area Mining")
+    static final class AreaMining extends SubsystemEvent {
+    }
+
+    @Name("fbcm.Network")
+    @Label("Network Sends")
+    static final class Network extends SubsystemEvent {
+    }
+
+    @Name("fbcm.SectionCompile")
+    @Label("Section Compile")
+    static final class SectionCompile extends SubsystemEvent {
+    }
+}
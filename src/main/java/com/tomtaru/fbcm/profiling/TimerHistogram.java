@@ -0,0 +1,86 @@
+package com.tomtaru.fbcm.profiling;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear histogram of durations in nanoseconds: every power of two is split into 4 buckets, so percentiles are
+// accurate to within 25%. Every bucket is a LongAdder, recording from several threads at once never contends.
+public final class TimerHistogram {
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = 62 * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    TimerHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0L);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return Math.min((exponent - 1) * SUB_BUCKETS + sub, BUCKETS - 1);
+    }
+
+    // Smallest duration that lands in the bucket
+    static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 2);
+    }
+
+    void record(long nanos) {
+        this.buckets[bucket(nanos)].increment();
+        this.count.increment();
+        this.total.add(nanos);
+        this.max.accumulate(nanos);
+    }
+
+    void reset() {
+        for (LongAdder bucket : this.buckets) {
+            bucket.reset();
+        }
+        this.count.reset();
+        this.total.reset();
+        this.max.reset();
+    }
+
+    Summary summarize() {
+        long[] counts = new long[BUCKETS];
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets[i].sum();
+            count += counts[i];
+        }
+        return new Summary(count, this.total.sum(), percentile(counts, count, 0.50), percentile(counts, count, 0.99), this.max.get());
+    }
+
+    private static long percentile(long[] counts, long count, double percentile) {
+        if (count == 0L) {
+            return 0L;
+        }
+
+        long rank = (long) Math.ceil(count * percentile);
+        long seen = 0L;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // Report the middle of the bucket
+                return (lowerBound(i) + lowerBound(Math.min(i + 1, counts.length - 1))) / 2L;
+            }
+        }
+        return lowerBound(counts.length - 1);
+    }
+
+    public record Summary(long count, long totalNanos, long p50Nanos, long p99Nanos, long maxNanos) {
+    }
+}
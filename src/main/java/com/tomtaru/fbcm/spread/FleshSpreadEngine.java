@@ -0,0 +1,249 @@
+package com.tomtaru.fbcm.spread;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.tomtaru.fbcm.Config;
+import com.tomtaru.fbcm.ConfigSnapshot;
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.ChunkEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+// Spreads the configured flesh block over everything in the fbcm:flesh_spreadable tag.
+// Only the frontier is tracked: flesh blocks that may still have something to convert next to them, stored per
+// section in SpreadState. Spreading happens in generations, one every spreadInterval ticks. A generation converts
+// every spreadable neighbour of the frontier, and the converted blocks form the frontier of the next one. The work
+// of a generation is done in fixed size batches until the tick budget runs out, and the next generation only starts
+// once the running one is finished, so the budget decides how fast flesh spreads but never where it spreads to.
+// Sections without frontier bits are dropped from the active set and cost nothing until a block next to flesh changes.
+// Frontier blocks next to an unloaded chunk are parked instead, and only queued again once a chunk next to them loads.
+@EventBusSubscriber(modid = FleshblockCompanionMod.MODID)
+public final class FleshSpreadEngine {
+    public static final TagKey<Block> SPREADABLE = TagKey.create(Registries.BLOCK, ResourceLocation.fromNamespaceAndPath(FleshblockCompanionMod.MODID, "flesh_spreadable"));
+    // Frontier blocks handled between two budget checks
+    private static final int BATCH_SIZE = 256;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final Map<ResourceKey<Level>, LevelSpread> LEVELS = new HashMap<>();
+
+    private FleshSpreadEngine() {
+    }
+
+    public static void tick(MinecraftServer server) {
+        ConfigSnapshot config = Config.get();
+        Block fleshBlock = config.spreadBlock();
+        if (fleshBlock == null) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + config.spreadBudgetMicros() * 1000L;
+        int interval = config.spreadInterval();
+        for (ServerLevel level : server.getAllLevels()) {
+            LevelSpread spread = LEVELS.get(level.dimension());
+            if (spread != null) {
+                spread.tick(level, fleshBlock, deadline, interval);
+            }
+        }
+    }
+
+    // Queues a flesh block for the next generation and wakes its section
+    static void mark(ServerLevel level, BlockPos pos) {
+        LevelChunk chunk = level.getChunkAt(pos);
+        SpreadState.get(chunk).mark(pos);
+        chunk.setUnsaved(true);
+        LEVELS.computeIfAbsent(level.dimension(), key -> new LevelSpread()).active.add(SectionPos.asLong(pos));
+    }
+
+    @SubscribeEvent
+    static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        // Null while spreading is disabled
+        Block fleshBlock = Config.get().spreadBlock();
+        if (fleshBlock == null || !(event.getLevel() instanceof ServerLevel level)) {
+            return;
+        }
+
+        BlockState state = event.getState();
+        if (state.is(fleshBlock)) {
+            mark(level, event.getPos());
+        } else if (state.is(SPREADABLE)) {
+            BlockPos.MutableBlockPos neighbour = new BlockPos.MutableBlockPos();
+            for (Direction direction : DIRECTIONS) {
+                neighbour.setWithOffset(event.getPos(), direction);
+                if (level.isLoaded(neighbour) && level.getBlockState(neighbour).is(fleshBlock)) {
+                    mark(level, neighbour);
+                }
+            }
+        }
+    }
+
+    // Puts a frontier block to sleep, see wakeParked()
+    private static void park(ServerLevel level, BlockPos pos) {
+        LevelChunk chunk = level.getChunkAt(pos);
+        SpreadState.get(chunk).park(pos);
+        chunk.setUnsaved(true);
+    }
+
+    @SubscribeEvent
+    static void onChunkLoad(ChunkEvent.Load event) {
+        if (!(event.getLevel() instanceof ServerLevel level) || !(event.getChunk() instanceof LevelChunk chunk)) {
+            return;
+        }
+
+        if (chunk.hasData(FleshblockCompanionMod.SPREAD_STATE)) {
+            SpreadState state = SpreadState.get(chunk);
+            if (!state.sections().isEmpty()) {
+                LevelSpread spread = LEVELS.computeIfAbsent(level.dimension(), key -> new LevelSpread());
+                for (int sectionY : state.sections().keySet()) {
+                    spread.active.add(SectionPos.asLong(chunk.getPos().x, sectionY, chunk.getPos().z));
+                }
+            }
+        }
+
+        // Parked blocks get one more try whenever a chunk next to them (or their own) loads
+        wakeParked(level, chunk);
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            LevelChunk neighbour = level.getChunkSource().getChunkNow(chunk.getPos().x + direction.getStepX(), chunk.getPos().z + direction.getStepZ());
+            if (neighbour != null) {
+                wakeParked(level, neighbour);
+            }
+        }
+    }
+
+    private static void wakeParked(ServerLevel level, LevelChunk chunk) {
+        if (!chunk.hasData(FleshblockCompanionMod.SPREAD_STATE)) {
+            return;
+        }
+
+        for (Int2ObjectMap.Entry<SpreadState.Section> entry : SpreadState.get(chunk).sections().int2ObjectEntrySet()) {
+            if (entry.getValue().unpark()) {
+                LEVELS.computeIfAbsent(level.dimension(), key -> new LevelSpread()).active.add(SectionPos.asLong(chunk.getPos().x, entry.getIntKey(), chunk.getPos().z));
+                chunk.setUnsaved(true);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    static void onServerStopped(ServerStoppedEvent event) {
+        LEVELS.clear();
+    }
+
+    private static final class LevelSpread {
+        // Sections with frontier bits in either generation
+        final LongLinkedOpenHashSet active = new LongLinkedOpenHashSet();
+        // Sections that still have work in the running generation
+        final LongArrayFIFOQueue pending = new LongArrayFIFOQueue();
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        final BlockPos.MutableBlockPos neighbour = new BlockPos.MutableBlockPos();
+        long lastGeneration = Long.MIN_VALUE;
+
+        void tick(ServerLevel level, Block fleshBlock, long deadline, int interval) {
+            if (this.pending.isEmpty()) {
+                if (this.active.isEmpty() || level.getGameTime() - this.lastGeneration < interval) {
+                    return;
+                }
+                this.startGeneration(level);
+            }
+
+            while (!this.pending.isEmpty() && System.nanoTime() < deadline) {
+                long key = this.pending.firstLong();
+                LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.x(key), SectionPos.z(key));
+                SpreadState.Section section = chunk == null ? null : SpreadState.get(chunk).section(SectionPos.y(key));
+                if (section == null || this.processBatch(level, fleshBlock, key, section)) {
+                    this.pending.dequeueLong();
+                }
+            }
+        }
+
+        private void startGeneration(ServerLevel level) {
+            this.lastGeneration = level.getGameTime();
+            LongIterator iterator = this.active.iterator();
+            while (iterator.hasNext()) {
+                long key = iterator.nextLong();
+                LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.x(key), SectionPos.z(key));
+                if (chunk == null) {
+                    // Picked up again by ChunkEvent.Load
+                    iterator.remove();
+                    continue;
+                }
+
+                SpreadState state = SpreadState.get(chunk);
+                SpreadState.Section section = state.section(SectionPos.y(key));
+                if (section == null || !section.promote()) {
+                    // Nothing left to convert here, the section goes to sleep
+                    state.removeIfEmpty(SectionPos.y(key));
+                    chunk.setUnsaved(true);
+                    iterator.remove();
+                    continue;
+                }
+                this.pending.enqueue(key);
+            }
+        }
+
+        // Handles up to BATCH_SIZE frontier blocks of the section, returns whether its running generation is done
+        private boolean processBatch(ServerLevel level, Block fleshBlock, long key, SpreadState.Section section) {
+            int minX = SectionPos.sectionToBlockCoord(SectionPos.x(key));
+            int minY = SectionPos.sectionToBlockCoord(SectionPos.y(key));
+            int minZ = SectionPos.sectionToBlockCoord(SectionPos.z(key));
+            int processed = 0;
+            for (int word = 0; word < SpreadState.Section.WORDS; word++) {
+                while (section.current[word] != 0L) {
+                    if (processed++ == BATCH_SIZE) {
+                        return false;
+                    }
+                    int index = word << 6 | Long.numberOfTrailingZeros(section.current[word]);
+                    // Clear the lowest set bit
+                    section.current[word] &= section.current[word] - 1L;
+                    this.spreadFrom(level, fleshBlock, this.cursor.set(minX + (index & 15), minY + (index >> 8), minZ + (index >> 4 & 15)));
+                }
+            }
+            return true;
+        }
+
+        private void spreadFrom(ServerLevel level, Block fleshBlock, BlockPos pos) {
+            if (!level.getBlockState(pos).is(fleshBlock)) {
+                return;
+            }
+
+            boolean park = false;
+            for (Direction direction : DIRECTIONS) {
+                this.neighbour.setWithOffset(pos, direction);
+                if (level.isOutsideBuildHeight(this.neighbour)) {
+                    continue;
+                }
+                if (!level.isLoaded(this.neighbour)) {
+                    // Sleep until the chunk loads instead of retrying every generation
+                    park = true;
+                    continue;
+                }
+                if (level.getBlockState(this.neighbour).is(SPREADABLE)) {
+                    level.setBlock(this.neighbour, fleshBlock.defaultBlockState(), Block.UPDATE_ALL);
+                    mark(level, this.neighbour);
+                }
+            }
+            if (park) {
+                FleshSpreadEngine.park(level, pos);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.tomtaru.fbcm.spread;
+
+import javax.annotation.Nullable;
+
+import com.tomtaru.fbcm.FleshblockCompanionMod;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.neoforge.common.util.INBTSerializable;
+
+// The spread frontier of one chunk, attached to the LevelChunk and saved with it.
+// Every section that still has work gets a 4096 bit set per generation (64 longs each), sections without any bits
+// are simply not in the map, which is what lets fully converted sections sleep. A third set holds parked blocks:
+// frontier blocks next to an unloaded chunk, which sleep until FleshSpreadEngine sees a neighbouring chunk load.
+public class SpreadState implements INBTSerializable<CompoundTag> {
+    private static final String PARKED = "parked";
+    private final Int2ObjectMap<Section> sections = new Int2ObjectOpenHashMap<>();
+
+    public static SpreadState get(LevelChunk chunk) {
+        return chunk.getData(FleshblockCompanionMod.SPREAD_STATE);
+    }
+
+    static int index(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | x & 15;
+    }
+
+    @Nullable
+    Section section(int sectionY) {
+        return this.sections.get(sectionY);
+    }
+
+    // Queues a flesh block for the next generation
+    void mark(BlockPos pos) {
+        this.sections.computeIfAbsent(pos.getY() >> 4, y -> new Section()).setNext(index(pos.getX(), pos.getY(), pos.getZ()));
+    }
+
+    // Puts a frontier block to sleep until a chunk next to it loads
+    void park(BlockPos pos) {
+        this.sections.computeIfAbsent(pos.getY() >> 4, y -> new Section()).park(index(pos.getX(), pos.getY(), pos.getZ()));
+    }
+
+    void removeIfEmpty(int sectionY) {
+        Section section = this.sections.get(sectionY);
+        if (section != null && section.isEmpty()) {
+            this.sections.remove(sectionY);
+        }
+    }
+
+    Int2ObjectMap<Section> sections() {
+        return this.sections;
+    }
+
+    @Override
+    public CompoundTag serializeNBT(HolderLookup.Provider provider) {
+        // Both generations are saved as one set, a reloaded chunk simply continues with the next generation
+        CompoundTag tag = new CompoundTag();
+        CompoundTag parked = new CompoundTag();
+        for (Int2ObjectMap.Entry<Section> entry : this.sections.int2ObjectEntrySet()) {
+            long[] bits = new long[Section.WORDS];
+            for (int i = 0; i < Section.WORDS; i++) {
+                bits[i] = entry.getValue().current[i] | entry.getValue().next[i];
+            }
+            tag.putLongArray(Integer.toString(entry.getIntKey()), bits);
+            if (entry.getValue().hasParked()) {
+                parked.putLongArray(Integer.toString(entry.getIntKey()), entry.getValue().parked.clone());
+            }
+        }
+        tag.put(PARKED, parked);
+        return tag;
+    }
+
+    @Override
+    public void deserializeNBT(HolderLookup.Provider provider, CompoundTag tag) {
+        this.sections.clear();
+        CompoundTag parked = tag.getCompound(PARKED);
+        for (String key : tag.getAllKeys()) {
+            long[] bits = tag.getLongArray(key);
+            if (!key.equals(PARKED) && bits.length == Section.WORDS) {
+                Section section = new Section();
+                System.arraycopy(bits, 0, section.next, 0, Section.WORDS);
+                long[] parkedBits = parked.getLongArray(key);
+                if (parkedBits.length == Section.WORDS) {
+                    System.arraycopy(parkedBits, 0, section.parked, 0, Section.WORDS);
+                }
+                if (!section.isEmpty()) {
+                    this.sections.put(Integer.parseInt(key), section);
+                }
+            }
+        }
+    }
+
+    static final class Section {
+        static final int WORDS = 4096 / Long.SIZE;
+
+        // Blocks to process in the running generation, and blocks queued for the one after it
+        final long[] current = new long[WORDS];
+        final long[] next = new long[WORDS];
+        // Blocks waiting for a neighbouring chunk, neither generation looks at them
+        final long[] parked = new long[WORDS];
+
+        void setNext(int index) {
+            this.next[index >> 6] |= 1L << index;
+        }
+
+        void park(int index) {
+            this.parked[index >> 6] |= 1L << index;
+        }
+
+        // Queues the parked blocks for the next generation, returns whether there were any
+        boolean unpark() {
+            boolean any = false;
+            for (int i = 0; i < WORDS; i++) {
+                this.next[i] |= this.parked[i];
+                any |= this.parked[i] != 0L;
+                this.parked[i] = 0L;
+            }
+            return any;
+        }
+
+        boolean hasParked() {
+            for (int i = 0; i < WORDS; i++) {
+                if (this.parked[i] != 0L) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Moves the queued blocks into the running generation, returns whether there is anything to do
+        boolean promote() {
+            boolean any = false;
+            for (int i = 0; i < WORDS; i++) {
+                this.current[i] |= this.next[i];
+                this.next[i] = 0L;
+                any |= this.current[i] != 0L;
+            }
+            return any;
+        }
+
+        boolean isEmpty() {
+            for (int i = 0; i < WORDS; i++) {
+                if (this.current[i] != 0L || this.next[i] != 0L || this.parked[i] != 0L) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
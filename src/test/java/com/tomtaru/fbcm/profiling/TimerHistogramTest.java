@@ -0,0 +1,84 @@
+package com.tomtaru.fbcm.profiling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TimerHistogramTest {
+    @Test
+    void smallDurationsHaveTheirOwnBucket() {
+        for (long nanos = 0L; nanos < 8L; nanos++) {
+            assertEquals(nanos, TimerHistogram.bucket(nanos));
+            assertEquals(nanos, TimerHistogram.lowerBound((int) nanos));
+        }
+        assertEquals(0, TimerHistogram.bucket(-5L));
+    }
+
+    // Every duration lies between the lower bound of its bucket and the lower bound of the next one
+    @Test
+    void bucketsCoverEveryDuration() {
+        for (long nanos = 0L; nanos < 1L << 20; nanos++) {
+            int bucket = TimerHistogram.bucket(nanos);
+            assertTrue(TimerHistogram.lowerBound(bucket) <= nanos, "lower bound of " + nanos);
+            assertTrue(nanos < TimerHistogram.lowerBound(bucket + 1), "upper bound of " + nanos);
+        }
+        for (int shift = 20; shift < 61; shift++) {
+            long nanos = 5L << shift;
+            assertEquals(nanos, TimerHistogram.lowerBound(TimerHistogram.bucket(nanos)));
+            assertEquals(TimerHistogram.bucket(nanos), TimerHistogram.bucket(nanos + (1L << shift) - 1L));
+        }
+    }
+
+    // Four buckets per power of two, so a bucket is at most a quarter of its lower bound wide
+    @Test
+    void bucketsAreAccurateToAQuarter() {
+        for (int bucket = 4; bucket < 200; bucket++) {
+            long lower = TimerHistogram.lowerBound(bucket);
+            long width = TimerHistogram.lowerBound(bucket + 1) - lower;
+            assertTrue(width * 4L <= lower, "width of bucket " + bucket);
+        }
+    }
+
+    @Test
+    void hugeDurationsGoToTheLastBucket() {
+        assertEquals(TimerHistogram.bucket(Long.MAX_VALUE), TimerHistogram.bucket(Long.MAX_VALUE - 1L));
+        assertTrue(TimerHistogram.lowerBound(TimerHistogram.bucket(Long.MAX_VALUE)) > 0L);
+    }
+
+    @Test
+    void emptySummaryIsZero() {
+        assertEquals(new TimerHistogram.Summary(0L, 0L, 0L, 0L, 0L), new TimerHistogram().summarize());
+    }
+
+    // 1 to 100 ns: p50 is 50 ns in the bucket [48, 56), p99 is 99 ns in [96, 112), reported as their middles
+    @Test
+    void percentilesAreBucketMiddles() {
+        TimerHistogram histogram = new TimerHistogram();
+        for (long nanos = 1L; nanos <= 100L; nanos++) {
+            histogram.record(nanos);
+        }
+        assertEquals(new TimerHistogram.Summary(100L, 5050L, 52L, 104L, 100L), histogram.summarize());
+    }
+
+    @Test
+    void percentileOfASingleValue() {
+        TimerHistogram histogram = new TimerHistogram();
+        histogram.record(1_000_000L);
+        TimerHistogram.Summary summary = histogram.summarize();
+        long lower = TimerHistogram.lowerBound(TimerHistogram.bucket(1_000_000L));
+        long upper = TimerHistogram.lowerBound(TimerHistogram.bucket(1_000_000L) + 1);
+        assertEquals((lower + upper) / 2L, summary.p50Nanos());
+        assertEquals(summary.p50Nanos(), summary.p99Nanos());
+        assertEquals(1_000_000L, summary.maxNanos());
+    }
+
+    @Test
+    void resetClearsEverything() {
+        TimerHistogram histogram = new TimerHistogram();
+        histogram.record(123L);
+        histogram.record(456_789L);
+        histogram.reset();
+        assertEquals(new TimerHistogram.Summary(0L, 0L, 0L, 0L, 0L), histogram.summarize());
+    }
+}